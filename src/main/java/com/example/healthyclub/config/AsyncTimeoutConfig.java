@@ -0,0 +1,39 @@
+package com.example.healthyclub.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.ServletRequest;
+import java.util.concurrent.Callable;
+
+//비동기 응답(StreamingResponseBody 등)의 타임아웃을 엔드포인트마다 정할 수 있게 함
+//컨트롤러가 setTimeout으로 요청에 밀리초를 넣어두면 비동기 처리를 시작하기 직전에 그 값으로 바꾼다 (없으면 전역 기본값)
+//전역 타임아웃을 길게 잡으면 느린 요청 하나하나가 그만큼 스레드를 잡고 있으므로, 긴 타임아웃은 필요한 엔드포인트에만 준다
+@Configuration
+public class AsyncTimeoutConfig implements WebMvcConfigurer {
+
+    private static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutConfig.class.getName() + ".timeout";
+
+    //이 요청의 비동기 처리 타임아웃 (밀리초)
+    public static void setTimeout(ServletRequest request, long timeoutMillis) {
+        request.setAttribute(TIMEOUT_ATTRIBUTE, timeoutMillis);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Long && request instanceof AsyncWebRequest) {
+                    ((AsyncWebRequest) request).setTimeout((Long) timeout);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.healthyclub.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+//서버 하드웨어에 맞춰 strength(cost)를 정하는 BCrypt 인코더
+//저장된 해시의 cost가 현재 strength와 다르면 upgradeEncoding이 true를 반환 -> 로그인 성공 시 다시 해싱한다
+@Slf4j
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    //BCrypt가 허용하는 cost 범위
+    static final int MIN_STRENGTH = 4;
+    static final int MAX_STRENGTH = 31;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    //해시 한 번에 targetMillis 이하로 걸리는 가장 큰 strength를 골라서 인코더 생성 (floor ~ ceiling 사이)
+    public static CalibratedBCryptPasswordEncoder calibrate(long targetMillis, int floor, int ceiling) {
+        floor = Math.max(MIN_STRENGTH, floor);
+        ceiling = Math.min(MAX_STRENGTH, Math.max(floor, ceiling));
+
+        //JIT 워밍업
+        BCryptPasswordEncoder warmup = new BCryptPasswordEncoder(MIN_STRENGTH);
+        for (int i = 0; i < 10; i++) {
+            warmup.encode("calibration");
+        }
+
+        int chosen = floor;
+        for (int cost = floor; cost <= ceiling; cost++) {
+            long elapsed = measure(new BCryptPasswordEncoder(cost));
+            log.info("bcrypt calibration - strength : {}, {} ms", cost, elapsed);
+            if (elapsed > targetMillis) {
+                break;
+            }
+            chosen = cost;
+            //cost가 1 오를 때마다 시간이 2배가 되므로 다음 단계가 확실히 넘치면 측정하지 않는다
+            if (elapsed * 2 > targetMillis) {
+                break;
+            }
+        }
+        log.info("bcrypt strength : {} (target {} ms)", chosen, targetMillis);
+        return new CalibratedBCryptPasswordEncoder(chosen);
+    }
+
+    //저장된 해시의 cost를 읽어옴 ($2a$10$... 형식). 읽을 수 없으면 -1
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int end = encodedPassword.indexOf('$', 1);
+        if (end < 0 || end + 3 > encodedPassword.length() || encodedPassword.charAt(end + 3) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(end + 1);
+        char ones = encodedPassword.charAt(end + 2);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = strengthOf(encodedPassword);
+        return stored > 0 && stored != strength;
+    }
+
+    //가장 빠른 값을 사용 (GC나 다른 스레드 때문에 튀는 값은 무시)
+    private static long measure(BCryptPasswordEncoder encoder) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
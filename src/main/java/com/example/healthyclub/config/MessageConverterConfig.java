@@ -0,0 +1,27 @@
+package com.example.healthyclub.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+//Accept 헤더가 application/cbor 또는 application/x-jackson-smile 이면 같은 DTO를 바이너리로 응답
+//기본(Accept 없음, */*, application/json)은 지금처럼 JSON
+//스프링 부트의 Jackson 설정(spring.jackson.*, 날짜 형식 등)을 그대로 쓰도록 부트가 만들어주는 builder로 ObjectMapper를 만든다
+//(같은 타입의 빈을 등록하면 부트가 기본 컨버터 대신 이 빈을 JSON 컨버터 뒤에 넣는다)
+@Configuration
+public class MessageConverterConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
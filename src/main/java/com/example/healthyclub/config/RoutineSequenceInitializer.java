@@ -0,0 +1,31 @@
+package com.example.healthyclub.config;
+
+import com.example.healthyclub.entity.RoutineEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+//routine 테이블 id가 AUTO_INCREMENT(IDENTITY)에서 시퀀스(routine_seq)로 바뀌었으므로
+//서버 시작 시 시퀀스를 기존 id 최대값 뒤로 옮겨서 id가 겹치지 않게 한다 (이미 뒤에 있으면 MariaDB SETVAL은 아무것도 안 함)
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RoutineSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    //ddl-auto로 시퀀스가 만들어진 뒤에 실행되도록 EntityManagerFactory에 의존
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM routine", Long.class);
+        //pooled 방식은 시퀀스 값 v를 받으면 (v - 50, v] 구간의 id를 쓰므로 최대값 + 50 으로 맞춘다
+        long next = (maxId != null ? maxId : 0L) + RoutineEntity.ID_ALLOCATION_SIZE;
+        jdbcTemplate.queryForObject("SELECT SETVAL(routine_seq, " + next + ")", Object.class);
+        log.info("routine_seq aligned - max id : {}", maxId);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.healthyclub.config;
 
 import com.example.healthyclub.jwt.JwtAuthFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -16,8 +17,15 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
 
+    //strength를 직접 지정하지 않으면(0) 서버 시작 시 해시 1회가 target-ms 안에 끝나는 가장 큰 값으로 정한다
     @Bean
-    public BCryptPasswordEncoder encoder(){return new BCryptPasswordEncoder(); }
+    public BCryptPasswordEncoder encoder(@Value("${healthyclub.auth.bcrypt.strength:0}") int strength,
+                                         @Value("${healthyclub.auth.bcrypt.target-ms:250}") long targetMillis,
+                                         @Value("${healthyclub.auth.bcrypt.min-strength:10}") int minStrength,
+                                         @Value("${healthyclub.auth.bcrypt.max-strength:16}") int maxStrength){
+        if (strength > 0) return new CalibratedBCryptPasswordEncoder(strength);
+        return CalibratedBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
+    }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -29,7 +37,7 @@ public class SecurityConfig {
                 .httpBasic().disable()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
-                .authorizeRequests().antMatchers("/auth/login","/auth/join").permitAll()
+                .authorizeRequests().antMatchers("/auth/login","/auth/join","/auth/available").permitAll()
                 .anyRequest().authenticated();
 
         //토큰 인증 필터 등록
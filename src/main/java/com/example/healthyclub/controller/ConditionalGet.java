@@ -0,0 +1,50 @@
+package com.example.healthyclub.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+//조건부 GET(If-None-Match / If-Modified-Since) 공통 처리
+//같은 URL이 Accept에 따라 JSON / CBOR / Smile(MessageConverterConfig)로 나가므로
+//ETag는 응답 형식마다 다르게 만들고, 304든 200이든 Vary: Accept를 붙여서 캐시가 형식별로 따로 저장하게 한다
+final class ConditionalGet {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private ConditionalGet() {
+    }
+
+    //Accept 헤더로 고른 응답 형식 (json / cbor / smile). 컨버터 순서처럼 JSON이 먼저이고, 못 고르면 json
+    static String format(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) return "json";
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MediaType.sortBySpecificityAndQuality(types);
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) continue;
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return "json";
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) return "cbor";
+            if (type.isCompatibleWith(SMILE)) return "smile";
+        }
+        return "json";
+    }
+
+    //Vary: Accept를 붙이고, 바뀌지 않았으면 true (304는 WebRequest가 설정함)
+    static boolean notModified(WebRequest request, String etag, long lastModified) {
+        if (request instanceof ServletWebRequest) {
+            HttpServletResponse response = ((ServletWebRequest) request).getResponse();
+            if (response != null) response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.healthyclub.controller;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin
+public class FeedController {
+
+    private final FeedService feedService;
+
+    //내 친구들의 최근 루틴 (최신 순) - 다음 페이지가 있으면 X-Next-Cursor 헤더 값을 before로 다시 보내면 됨
+    @GetMapping("/feed")
+    public ResponseEntity<List<RoutineDTO>> feed(@RequestParam(required = false) Long before,
+                                                 @RequestParam(defaultValue = "20") int size,
+                                                 @AuthenticationPrincipal String identifyId){
+
+        FeedService.Page page = feedService.feed(Long.parseLong(identifyId), before, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        //페이지가 꽉 찼을 때만 다음 페이지 커서를 알려줌
+        if (page.getNextCursor() != null) {
+            response.header(RoutineController.NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getRoutines());
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.healthyclub.controller;
 
-import com.example.healthyclub.entity.UserEntity;
+import com.example.healthyclub.dto.FriendRecommendationDTO;
+import com.example.healthyclub.dto.MutualFriendCountDTO;
+import com.example.healthyclub.dto.UserSummaryDTO;
 import com.example.healthyclub.error.ErrorDTO;
-import com.example.healthyclub.repository.UserRepository;
+import com.example.healthyclub.service.FriendQueryService;
+import com.example.healthyclub.service.FriendService;
+import com.example.healthyclub.service.RecommendationService;
+import com.example.healthyclub.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -10,8 +15,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/friend")
@@ -20,56 +28,103 @@ import java.util.List;
 @CrossOrigin
 public class FriendController {
 
-    private final UserRepository userRepository;
+    //2촌 목록 한 번에 받을 수 있는 최대 수
+    private static final int MAX_TWO_HOP_SIZE = 100;
+
+    private final FriendService friendService;
+    private final UserService userService;
+    private final RecommendationService recommendationService;
+    private final FriendQueryService friendQueryService;
 
 
     //친구를 추가하기 @Pathvariable의 id는 내가 친구를 추가하려는 사람의 id, @Auth의 identifyId는 나 자신
+    //응답은 추가한 뒤의 내 친구 id 목록
     @PostMapping("/{id}")
-    @Transactional
     public ResponseEntity<?> addFriends(@PathVariable Long id, @AuthenticationPrincipal String identifyId) {
         long longId = Long.parseLong(identifyId);
-        List<String> friends = userRepository.getUserById(longId).getFriends();
-        String stringId = String.valueOf(id);
-        UserEntity userById = userRepository.getUserById(id);
-        log.info("{}",userById);
-        if(userById == null){
-            String message = "추가하려는 친구가 존재하지 않습니다.";
-            return ResponseEntity.badRequest().body(new ErrorDTO(message));
+        try {
+            long[] friends = friendService.add(longId, id);
+            return ResponseEntity.ok().body(friends);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
         }
-        friends.add(stringId);
-
-        return ResponseEntity.ok().body(friends);
     }
 
     //친구를 삭제하기
     @DeleteMapping("/{id}")
-    @Transactional
     public ResponseEntity<?> deleteFriends(@PathVariable Long id, @AuthenticationPrincipal String identifyId) {
         long longId = Long.parseLong(identifyId);
-        List<String> friends = userRepository.getUserById(longId).getFriends();
-        String stringId = String.valueOf(id);
-        UserEntity userById = userRepository.getUserById(id);
-        log.info("{}",userById);
-        if(userById == null){
-            String message = "추가하려는 친구가 존재하지 않습니다.";
-            return ResponseEntity.badRequest().body(new ErrorDTO(message));
+        try {
+            long[] friends = friendService.remove(longId, id);
+            return ResponseEntity.ok().body(friends);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
         }
-        friends.remove(stringId);
-
-        return ResponseEntity.ok().body(friends);
-
     }
 
     //나의 모든 친구 목록들을 보여주기
     @GetMapping("/show")
-    @Transactional
-    public ResponseEntity<?> deleteFriends(@AuthenticationPrincipal String identifyId) {
+    public ResponseEntity<?> showFriends(@AuthenticationPrincipal String identifyId) {
         long longId = Long.parseLong(identifyId);
-        List<String> friends = userRepository.getUserById(longId).getFriends();
+        long[] friends = friendService.friendsOf(longId);
 
         return ResponseEntity.ok().body(friends);
 
     }
 
+    //나의 친구 목록을 요약 정보(id, 닉네임, 운동 종목)와 함께 보여주기 - 친구 500명당 IN 조회 한 번
+    @GetMapping("/show/summary")
+    public ResponseEntity<?> showFriendSummaries(@AuthenticationPrincipal String identifyId) {
+        long longId = Long.parseLong(identifyId);
+        List<Long> friendIds = Arrays.stream(friendService.friendsOf(longId)).boxed().collect(Collectors.toList());
+        List<UserSummaryDTO> summaries = userService.summaries(friendIds);
+
+        return ResponseEntity.ok().body(summaries);
+    }
+
+    //추천 친구 - 운동 종목이 겹치거나 내 친구들의 친구인 유저를 점수 순으로 size개 (이미 친구인 유저는 빠짐)
+    @GetMapping("/recommend")
+    public ResponseEntity<?> recommend(@RequestParam(defaultValue = "20") int size, @AuthenticationPrincipal String identifyId) {
+        long longId = Long.parseLong(identifyId);
+        List<FriendRecommendationDTO> recommendations = recommendationService.recommend(longId, size);
+
+        return ResponseEntity.ok().body(recommendations);
+    }
+
+    //나와 id 유저가 함께 아는 친구 (둘 다 친구로 추가한 유저 id 목록)
+    @GetMapping("/mutual/{id}")
+    public ResponseEntity<?> mutualFriends(@PathVariable Long id, @AuthenticationPrincipal String identifyId) {
+        long longId = Long.parseLong(identifyId);
+        long[] mutual = friendQueryService.mutualFriends(longId, id);
+
+        return ResponseEntity.ok().body(mutual);
+    }
+
+    //여러 유저와 함께 아는 친구 수 (ids=1,2,3) - "함께 아는 친구 N명" 표시용. 응답은 id -> 수
+    @GetMapping("/mutual")
+    public ResponseEntity<?> mutualCounts(@RequestParam List<Long> ids, @AuthenticationPrincipal String identifyId) {
+        if (ids.size() > UserService.MAX_SUMMARY_IDS) {
+            return ResponseEntity.badRequest().body(new ErrorDTO("한 번에 " + UserService.MAX_SUMMARY_IDS + "명까지 조회할 수 있습니다."));
+        }
+        long longId = Long.parseLong(identifyId);
+        Map<Long, Integer> counts = friendQueryService.mutualCounts(longId, ids);
+
+        return ResponseEntity.ok().body(counts);
+    }
+
+    //친구의 친구 (내 친구들이 추가한 친구 중 아직 내 친구가 아닌 유저) - 함께 아는 친구가 많은 순으로 size개
+    @GetMapping("/two-hop")
+    public ResponseEntity<?> twoHop(@RequestParam(defaultValue = "20") int size, @AuthenticationPrincipal String identifyId) {
+        long longId = Long.parseLong(identifyId);
+        FriendQueryService.TwoHop twoHop = friendQueryService.twoHop(longId);
+
+        int limit = Math.min(twoHop.size(), Math.max(1, Math.min(size, MAX_TWO_HOP_SIZE)));
+        List<MutualFriendCountDTO> result = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            result.add(new MutualFriendCountDTO(twoHop.id(i), twoHop.count(i)));
+        }
+        return ResponseEntity.ok().body(result);
+    }
+
 
-}
\ No newline at end of file
+}
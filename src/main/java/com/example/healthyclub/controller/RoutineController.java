@@ -1,23 +1,43 @@
 package com.example.healthyclub.controller;
 
+import com.example.healthyclub.dto.RoutineBatchRequestDTO;
+import com.example.healthyclub.dto.RoutineBatchResponseDTO;
+import com.example.healthyclub.dto.RoutineCalendarDayDTO;
+import com.example.healthyclub.dto.RoutineCursor;
 import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.dto.RoutineSearchResponseDTO;
+import com.example.healthyclub.dto.RoutineStatDTO;
 import com.example.healthyclub.entity.RoutineEntity;
+import com.example.healthyclub.error.ErrorDTO;
+import com.example.healthyclub.error.ServiceBusyException;
+import com.example.healthyclub.service.ResourceVersions;
 import com.example.healthyclub.service.RoutineService;
+import com.example.healthyclub.service.RoutineStatService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.parameters.P;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class RoutineController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final RoutineService routineService;
+    private final RoutineStatService routineStatService;
+    private final ResourceVersions resourceVersions;
 
 
     //루틴 생성
@@ -35,24 +55,114 @@ public class RoutineController {
         return ResponseEntity.status(HttpStatus.OK).body(created);
     }
 
-    //루틴 읽어오기 (유저의 모든 루틴을 읽어옴) - 루틴 읽어오기는 꼭 내 루틴만 읽어오는 것이 아님. 따라서 로그인만 하면 가능
+    //루틴 일괄 처리 (생성 / 수정 / 삭제를 한 번의 요청으로) - 4주 프로그램처럼 여러 개를 한 번에 등록할 때 사용
+    @PostMapping("/routine/{userId}/batch")
+    public ResponseEntity<RoutineBatchResponseDTO> batch(@RequestBody RoutineBatchRequestDTO request, @PathVariable Long userId, @AuthenticationPrincipal String tokenId){
+
+        //서비스에게 위임해서 일괄 처리 (하나라도 실패하면 전부 취소)
+        RoutineBatchResponseDTO result = routineService.batch(request, userId, Long.parseLong(tokenId));
+
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
+    //루틴 읽어오기 (유저의 루틴을 날짜순으로 읽어옴) - 루틴 읽어오기는 꼭 내 루틴만 읽어오는 것이 아님. 따라서 로그인만 하면 가능
+    //from, to로 날짜 범위를 정하고 size개씩 나눠서 받는다. 다음 페이지가 있으면 X-Next-Cursor 헤더 값을 cursor로 다시 보내면 됨
+    //from, to, cursor, size를 하나도 보내지 않으면 예전처럼 전체 목록을 한 번에 준다
+    //응답에 ETag(응답 형식별) / Last-Modified를 붙이고, 그 뒤로 유저의 루틴이 바뀌지 않았으면 아무것도 읽지 않고 304
     @GetMapping("/routine/{userId}")
-    public ResponseEntity<List<RoutineDTO>> readAll(@PathVariable Long userId){
+    public ResponseEntity<?> readAll(@PathVariable Long userId,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer size,
+                                     WebRequest webRequest){
+
+        //버전은 읽기 전에 확인 (읽는 동안 바뀌면 다음 요청에서 새 버전으로 다시 받음)
+        if (ConditionalGet.notModified(webRequest, resourceVersions.routinesETag(userId, ConditionalGet.format(webRequest)),
+                resourceVersions.routinesLastModified(userId))) {
+            return null;
+        }
+
+        //페이지 조건이 없으면 전체 목록
+        if (from == null && to == null && cursor == null && size == null) {
+            List<RoutineDTO> routineDTOS = routineService.showAll(userId);
+            return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(routineDTOS);
+        }
+
+        int pageSize = (size != null) ? size : RoutineService.DEFAULT_PAGE_SIZE;
+        List<RoutineDTO> routineDTOS;
+        try {
+            RoutineCursor after = (cursor != null) ? RoutineCursor.parse(cursor) : null;
+            //서비스를 이용해 한 페이지 받아옴
+            routineDTOS = routineService.showPage(userId, from, to, after, pageSize);
+        } catch (IllegalArgumentException e) {
+            //잘못된 커서 / 날짜 범위
+            return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache());
+        //페이지가 꽉 찼으면 다음 페이지가 있을 수 있으므로 커서를 알려줌
+        if (!routineDTOS.isEmpty() && routineDTOS.size() >= Math.max(1, Math.min(pageSize, RoutineService.MAX_PAGE_SIZE))) {
+            response.header(NEXT_CURSOR_HEADER, RoutineCursor.after(routineDTOS.get(routineDTOS.size() - 1)).toString());
+        }
+        return response.body(routineDTOS);
+    }
+
+    //루틴 달력 (month=2023-01 형식) - 날짜별 루틴 수와 첫 번째 루틴 id만 내려줌. 루틴 읽어오기와 마찬가지로 로그인만 하면 가능
+    @GetMapping("/routine/{userId}/calendar")
+    public ResponseEntity<List<RoutineCalendarDayDTO>> calendar(@PathVariable Long userId,
+                                                                @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month){
 
-        //서비스를 이용해 리스트 받아옴
-        List<RoutineDTO> routineDTOS = routineService.showAll(userId);
+        List<RoutineCalendarDayDTO> days = routineService.calendar(userId, month);
 
-        return ResponseEntity.status(HttpStatus.OK).body(routineDTOS);
+        return ResponseEntity.status(HttpStatus.OK).body(days);
+    }
+
+    //운동별 주간 통계 (exercise=스쿼트&weeks=12) - 최근 weeks주의 세트 / 횟수 / 볼륨. exercise가 없으면 모든 운동. 로그인만 하면 가능
+    @GetMapping("/routine/{userId}/stats")
+    public ResponseEntity<List<RoutineStatDTO>> stats(@PathVariable Long userId,
+                                                      @RequestParam(required = false) String exercise,
+                                                      @RequestParam(defaultValue = "12") int weeks){
+
+        List<RoutineStatDTO> stats = routineStatService.weekly(userId, exercise, weeks);
+
+        return ResponseEntity.status(HttpStatus.OK).body(stats);
+    }
+
+    //루틴 검색 (q=스쿼트) - 모든 유저의 루틴 중 본문에 검색어가 들어간 루틴을 최신 순으로 size개씩. 로그인만 하면 가능
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size){
+
+        try {
+            RoutineSearchResponseDTO result = routineService.search(q, page, size);
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (ServiceBusyException e) {
+            //서버가 뜬 직후 검색 색인을 만드는 중
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new ErrorDTO(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            //빈 검색어 / 한 글자 단어
+            return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
+        }
     }
 
     //루틴 읽어오기 (해당 id에 해당하는 루틴을 읽어옴)
+    //목록과 같은 유저별 루틴 버전으로 조건부 GET 처리
     @GetMapping("/routine/{userId}/{routineId}")
-    public ResponseEntity<RoutineDTO> readOne(@PathVariable Long userId, @PathVariable Long routineId){
+    public ResponseEntity<RoutineDTO> readOne(@PathVariable Long userId, @PathVariable Long routineId, WebRequest webRequest){
+
+        if (ConditionalGet.notModified(webRequest, resourceVersions.routinesETag(userId, ConditionalGet.format(webRequest)),
+                resourceVersions.routinesLastModified(userId))) {
+            return null;
+        }
 
         //서비스를 이용해 루틴 DTO 받아옴
         RoutineDTO routineDTO = routineService.show(userId, routineId);
 
-        return ResponseEntity.status(HttpStatus.OK).body(routineDTO);
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(routineDTO);
     }
 
     //루틴 수정
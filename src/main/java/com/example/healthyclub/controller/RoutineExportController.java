@@ -0,0 +1,92 @@
+package com.example.healthyclub.controller;
+
+import com.example.healthyclub.config.AsyncTimeoutConfig;
+import com.example.healthyclub.dto.RoutineCursor;
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.service.RoutineService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@Slf4j
+public class RoutineExportController {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final RoutineService routineService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+
+    public RoutineExportController(RoutineService routineService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${healthyclub.routine.export.timeout-ms:600000}") long timeoutMillis) {
+        this.routineService = routineService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    //유저의 전체 루틴 기록을 한 줄에 루틴 하나씩(NDJSON) 내보내기 - 루틴 읽어오기와 마찬가지로 로그인만 하면 가능
+    //루틴 목록과 같은 (date, id) 키셋 페이지로 나눠 읽고 페이지마다 바로 응답에 쓴다
+    //DB 커넥션은 페이지를 읽는 동안만 잡으므로, 느린 클라이언트가 응답을 천천히 받아도 커넥션 풀을 붙잡고 있지 않는다
+    //기록이 많아도 힙 사용량은 한 페이지만큼이고, 타임아웃은 이 엔드포인트에만 길게 준다
+    @GetMapping("/routine/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long userId, HttpServletRequest request){
+
+        AsyncTimeoutConfig.setTimeout(request, timeoutMillis);
+
+        StreamingResponseBody body = out -> {
+            long count = 0;
+            //응답 스트림은 스프링이 닫으므로 generator를 닫을 때 같이 닫지 않음
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                //한 줄 = 루틴 하나 (RoutineDTO와 같은 필드 이름)
+                generator.setRootValueSeparator(null);
+
+                RoutineCursor cursor = null;
+                while (true) {
+                    List<RoutineDTO> page = routineService.showPage(userId, null, null, cursor, RoutineService.MAX_PAGE_SIZE);
+                    for (RoutineDTO routine : page) {
+                        write(generator, routine);
+                    }
+                    count += page.size();
+                    //페이지마다 클라이언트로 밀어냄 (클라이언트가 연결을 끊었으면 여기서 IOException -> 중단)
+                    generator.flush();
+
+                    if (page.size() < RoutineService.MAX_PAGE_SIZE) break;
+                    cursor = RoutineCursor.after(page.get(page.size() - 1));
+                }
+            }
+            log.info("/routine/{}/export - {} rows", userId, count);
+        };
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"routines-" + userId + ".ndjson\"")
+                .body(body);
+    }
+
+    private static void write(JsonGenerator generator, RoutineDTO routine) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", routine.getId());
+        generator.writeNumberField("userid", routine.getUserid());
+        generator.writeStringField("date", routine.getDate() != null ? routine.getDate().toString() : null);
+        generator.writeStringField("routine", routine.getRoutine());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -1,20 +1,38 @@
 package com.example.healthyclub.controller;
 
+import com.example.healthyclub.dto.UserProfileDTO;
 import com.example.healthyclub.dto.UserRequestDTO;
 import com.example.healthyclub.dto.UserResponseDTO;
+import com.example.healthyclub.dto.UserSnapshot;
+import com.example.healthyclub.dto.UserSummaryDTO;
 import com.example.healthyclub.entity.UserEntity;
 import com.example.healthyclub.error.ErrorDTO;
+import com.example.healthyclub.error.ServiceBusyException;
+import com.example.healthyclub.error.TooManyRequestsException;
 import com.example.healthyclub.jwt.TokenProvider;
+import com.example.healthyclub.jwt.TokenRevocationService;
+import com.example.healthyclub.service.AvailabilityRateLimiter;
+import com.example.healthyclub.service.LoginRateLimiter;
+import com.example.healthyclub.service.ResourceVersions;
+import com.example.healthyclub.service.UserAvailabilityService;
 import com.example.healthyclub.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.coyote.Response;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.transaction.Transactional;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @Slf4j
@@ -25,6 +43,11 @@ public class Usercontroller {
 
     private final UserService service;
     private final TokenProvider provider;
+    private final TokenRevocationService revocationService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ResourceVersions resourceVersions;
+    private final UserAvailabilityService availabilityService;
+    private final AvailabilityRateLimiter availabilityRateLimiter;
 
     //회원가입하기
     @PostMapping("/join")
@@ -39,21 +62,63 @@ public class Usercontroller {
             userEntity.setUpdateDate(date);
             UserEntity user = service.create(userEntity);
 
-            return ResponseEntity.ok().body(user);
+            //저장한 엔티티는 요청으로 만든 객체 그대로라 운동 종목을 다시 읽지 않음
+            return ResponseEntity.ok().body(new UserProfileDTO(user));
 
+        }catch(ServiceBusyException e){
+            return serviceBusy(e);
         }catch(RuntimeException e){
             return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
         }
 
     }
 
+    //가입 전 중복 확인 (userId / nickname / email 중 보낸 것만) - 응답은 파라미터 이름 -> 사용 가능 여부
+    //대부분 메모리의 블룸 필터에서 바로 "사용 가능"이 나오고, 이미 있을 수도 있는 값만 DB에서 확인
+    //로그인 없이 부를 수 있으므로 클라이언트 IP별로 횟수를 제한 (넘으면 429)
+    @GetMapping("/available")
+    public ResponseEntity<?> available(@RequestParam(required = false) String userId,
+                                       @RequestParam(required = false) String nickname,
+                                       @RequestParam(required = false) String email,
+                                       HttpServletRequest request){
+        int count = (userId != null ? 1 : 0) + (nickname != null ? 1 : 0) + (email != null ? 1 : 0);
+        if (count == 0){
+            return ResponseEntity.badRequest().body(new ErrorDTO("확인할 값이 없습니다."));
+        }
+        try {
+            availabilityRateLimiter.check(request.getRemoteAddr(), count);
+        }catch(TooManyRequestsException e){
+            return tooManyRequests(e);
+        }
+        Map<String, Boolean> result = availabilityService.check(userId, nickname, email);
+        return ResponseEntity.ok().body(result);
+    }
+
     //회원식별번호(id)를 @PathVariable로 보내주면 회원 정보를 보여주기
+    //회원 정보가 바뀌지 않았으면(If-None-Match / If-Modified-Since) DB를 보지 않고 304 (ETag는 응답 형식별)
+    //캐시에 없을 때만 회원 + 운동 종목을 fetch join 쿼리 한 번으로 읽는다
     @GetMapping("/show/{id}")
-    public ResponseEntity<?> showOne(@PathVariable Long id){
-        UserEntity entity = service.show(id);
-        log.info("entity에 대한 정보 - {}", entity);
+    public ResponseEntity<?> showOne(@PathVariable Long id, WebRequest webRequest){
+        if (ConditionalGet.notModified(webRequest, resourceVersions.profileETag(id, ConditionalGet.format(webRequest)),
+                resourceVersions.profileLastModified(id))) {
+            return null;
+        }
+        UserSnapshot user = service.find(id);
+        log.info("회원 정보 - {}", user);
         String message = "해당 id과 일치하는 회원정보가 없습니다.";
-        return (entity != null) ? ResponseEntity.ok().body(entity) : ResponseEntity.badRequest().body(new ErrorDTO(message));
+        return (user != null) ? ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new UserProfileDTO(user)) : ResponseEntity.badRequest().body(new ErrorDTO(message));
+    }
+
+    //여러 회원의 요약 정보(id, 닉네임, 운동 종목)를 한 번에 보여주기 - 요청 바디는 회원식별번호(id) 배열
+    //친구 목록처럼 여러 명을 보여줄 때 /show/{id}를 한 명씩 부르지 않도록 사용
+    @PostMapping("/summaries")
+    public ResponseEntity<?> summaries(@RequestBody List<Long> ids){
+        if (ids.size() > UserService.MAX_SUMMARY_IDS){
+            String m = "한 번에 조회할 수 있는 회원은 " + UserService.MAX_SUMMARY_IDS + "명까지입니다.";
+            return ResponseEntity.badRequest().body(new ErrorDTO(m));
+        }
+        List<UserSummaryDTO> summaries = service.summaries(ids);
+        return ResponseEntity.ok().body(summaries);
     }
 
     //Userequestdto를 입력하면 정보를 바꿔주기
@@ -65,8 +130,10 @@ public class Usercontroller {
             return ResponseEntity.badRequest().body(new ErrorDTO(m));
         }
 
+        //회원 정보는 한 번만 읽음 (대부분 캐시)
         Long userId = Long.parseLong(Id);
-        if(!userId.equals(service.show(id).getId())){
+        UserSnapshot target = service.find(id);
+        if(target == null || !userId.equals(target.getId())){
             String m = "접근 권한이 없습니다.";
             return ResponseEntity.badRequest().body(new ErrorDTO(m));
         }
@@ -78,7 +145,7 @@ public class Usercontroller {
             UserEntity userEntity = new UserEntity(dto);
 
             //joinDate 집어넣기
-            LocalDate joinDate = service.show(id).getJoinDate();
+            LocalDate joinDate = target.getJoinDate();
 
             //updatedate 갱신
             LocalDate date = LocalDate.now();
@@ -86,10 +153,16 @@ public class Usercontroller {
             userEntity.setJoinDate(joinDate);
             userEntity.setUpdateDate(date);
             userEntity.setId(id);
-            UserEntity user = service.update(userEntity);
+            service.update(userEntity);
             log.info("@AuthenticationPrincipal String userId : {}",userId);
-            return ResponseEntity.ok().body(user);
+            //저장한 내용 그대로 응답 (수정 후 다시 읽지 않음)
+            return ResponseEntity.ok().body(new UserProfileDTO(userEntity));
 
+        }catch(ServiceBusyException e){
+            return serviceBusy(e);
+        }catch(IllegalArgumentException e){
+            //이미 사용 중인 아이디 / 닉네임 / 이메일
+            return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
         }catch(RuntimeException e){
             String message = "회원 update 실패";
             return ResponseEntity.badRequest().body(new ErrorDTO(message));
@@ -105,26 +178,57 @@ public class Usercontroller {
         }
 
         Long userId = Long.parseLong(Id);
-        if(!userId.equals(service.show(id).getId())){
+        UserSnapshot target = service.find(id);
+        if(target == null || !userId.equals(target.getId())){
             String m = "접근 권한이 없습니다.";
             return ResponseEntity.badRequest().body(new ErrorDTO(m));
         }
 
         try {
-            UserEntity delete = service.delete(id);
-            log.info("@AuthenticationPrincipal String userId : {}",userId);
-            return ResponseEntity.ok().body(delete);
+            service.delete(id);
         }catch(Exception e){
             String message = "delete가 잘되지 않았습니다.";
             return ResponseEntity.badRequest().body(new ErrorDTO(message));
 
         }
+
+        //탈퇴한 회원의 토큰은 지금 요청에 쓴 것뿐 아니라 전부 쓸 수 없도록 폐기
+        //탈퇴는 이미 끝났으므로 폐기에 실패해도 응답은 성공으로 (토큰은 만료되면 어차피 무효)
+        try {
+            revocationService.revokeAll(id);
+        }catch(RuntimeException e){
+            log.error("탈퇴한 회원의 토큰 폐기 실패 - user : {}", id, e);
+        }
+        log.info("@AuthenticationPrincipal String userId : {}",userId);
+        //지우기 전에 확인한 회원 정보로 응답
+        return ResponseEntity.ok().body(new UserProfileDTO(target));
     }
+    //로그아웃하기 - 지금 사용중인 토큰을 폐기한다
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@AuthenticationPrincipal String Id,
+                                    @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization){
+        String token = parseBearerToken(authorization);
+        if(Id == null || Id.equals("anonymousUser") || token == null){
+            String m = "접근 권한이 없습니다.";
+            return ResponseEntity.badRequest().body(new ErrorDTO(m));
+        }
+        try {
+            revocationService.revoke(token);
+            log.info("/auth/logout - userId : {}", Id);
+            return ResponseEntity.ok().build();
+        }catch(RuntimeException e){
+            String message = "로그아웃 실패";
+            return ResponseEntity.badRequest().body(new ErrorDTO(message));
+        }
+    }
+
     //로그인하기
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody UserRequestDTO dto){
+    public ResponseEntity<?> login(@RequestBody UserRequestDTO dto, HttpServletRequest request){
         log.info("/auth/login POST - login info : {}",dto);
         try{
+            //시도 횟수 제한은 DB 조회와 비밀번호 비교보다 먼저
+            loginRateLimiter.check(dto.getUserId(), request.getRemoteAddr());
             UserEntity user = service.validateLogin(dto.getUserId(), dto.getPassword());
             //토큰 발행하기
             final String token = provider.create(user);
@@ -132,11 +236,35 @@ public class Usercontroller {
             userResponseDTO.setToken(token);
 
             return ResponseEntity.ok().body(userResponseDTO);
+        }catch(TooManyRequestsException e){
+            return tooManyRequests(e);
+        }catch(ServiceBusyException e){
+            return serviceBusy(e);
         }catch(RuntimeException e){
             return ResponseEntity.badRequest().body(new ErrorDTO(e.getMessage()));
         }
     }
 
+    //Authorization 헤더에서 Bearer 토큰만 꺼냄
+    private String parseBearerToken(String authorization){
+        if (StringUtils.hasText(authorization) && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+        return null;
+    }
 
+    //같은 아이디 / IP 에서 너무 자주 요청했을 때 : 429 + Retry-After
+    private ResponseEntity<ErrorDTO> tooManyRequests(TooManyRequestsException e){
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorDTO(e.getMessage()));
+    }
+
+    //해싱 대기열이 가득 찼을 때 : 503 + Retry-After
+    private ResponseEntity<ErrorDTO> serviceBusy(ServiceBusyException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorDTO(e.getMessage()));
+    }
 
 }
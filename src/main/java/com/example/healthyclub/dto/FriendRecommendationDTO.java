@@ -0,0 +1,24 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+//추천 친구 (회원 요약 정보 + 추천 근거)
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class FriendRecommendationDTO {
+
+    private Long id;
+
+    private String nickname;
+
+    private List<String> exerciseType;
+
+    //나와 같이 하는 운동 종목 수
+    private int sharedTypes;
+
+    //내 친구 중에 이 유저를 친구로 추가한 사람 수
+    private int mutualFriends;
+}
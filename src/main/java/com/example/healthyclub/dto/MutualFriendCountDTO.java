@@ -0,0 +1,14 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+//유저와 함께 아는 친구 수
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class MutualFriendCountDTO {
+
+    private Long id;
+
+    private int mutualFriends;
+}
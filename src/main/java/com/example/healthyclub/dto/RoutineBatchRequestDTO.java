@@ -0,0 +1,28 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//루틴 여러 개를 한 번에 생성 / 수정 / 삭제할 때 받는 dto
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineBatchRequestDTO {
+
+    //새로 만들 루틴들 (id는 비워야 함)
+    private List<RoutineDTO> create = new ArrayList<>();
+
+    //수정할 루틴들 (id 필수)
+    private List<RoutineDTO> update = new ArrayList<>();
+
+    //삭제할 루틴 id들
+    private List<Long> delete = new ArrayList<>();
+
+    public int size() {
+        return (create != null ? create.size() : 0)
+                + (update != null ? update.size() : 0)
+                + (delete != null ? delete.size() : 0);
+    }
+}
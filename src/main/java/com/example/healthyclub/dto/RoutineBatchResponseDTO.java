@@ -0,0 +1,18 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+//루틴 일괄 처리 결과
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineBatchResponseDTO {
+
+    private List<RoutineDTO> created;
+
+    private List<RoutineDTO> updated;
+
+    private List<RoutineDTO> deleted;
+}
@@ -0,0 +1,18 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+//달력 하루 칸에 필요한 정보 (그 날짜의 루틴 수, 첫 번째 루틴 id)
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineCalendarDayDTO {
+
+    private LocalDate date;
+
+    private int count;
+
+    private Long firstRoutineId;
+}
@@ -0,0 +1,42 @@
+package com.example.healthyclub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+//루틴 목록 키셋 페이지네이션 커서 : 마지막으로 받은 루틴의 (date, id)
+//문자열로는 "2023-01-05_123" 형태로 주고받는다 (날짜가 없는 루틴이면 "_123")
+@Getter
+@AllArgsConstructor
+public class RoutineCursor {
+
+    //날짜가 없는 루틴 뒤의 커서면 null
+    private LocalDate date;
+
+    private Long id;
+
+    //마지막 루틴 dto로 다음 페이지 커서 생성
+    public static RoutineCursor after(RoutineDTO last) {
+        return new RoutineCursor(last.getDate(), last.getId());
+    }
+
+    public static RoutineCursor parse(String value) {
+        int sep = value.lastIndexOf('_');
+        if (sep < 0) {
+            throw new IllegalArgumentException("잘못된 커서입니다 : " + value);
+        }
+        try {
+            String date = value.substring(0, sep);
+            return new RoutineCursor(date.isEmpty() ? null : LocalDate.parse(date), Long.parseLong(value.substring(sep + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다 : " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return (date != null ? date.toString() : "") + "_" + id;
+    }
+}
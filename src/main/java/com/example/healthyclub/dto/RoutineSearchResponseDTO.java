@@ -0,0 +1,21 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+//루틴 검색 결과 한 페이지 (최신 루틴 순)
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineSearchResponseDTO {
+
+    //다음 페이지가 있는지
+    private boolean hasNext;
+
+    private int page;
+
+    private int size;
+
+    private List<RoutineDTO> routines;
+}
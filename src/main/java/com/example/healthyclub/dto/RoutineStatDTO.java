@@ -0,0 +1,26 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+//운동 하나의 한 주 통계
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineStatDTO {
+
+    private String exercise;
+
+    //그 주의 월요일
+    private LocalDate weekStart;
+
+    private int routines;
+
+    private int sets;
+
+    private int reps;
+
+    //횟수 * 무게(kg) 합
+    private double volume;
+}
@@ -0,0 +1,31 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+//회원 일괄 등록 결과
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+
+    //읽은 행 수 (헤더, 빈 줄 제외)
+    private long read;
+
+    //등록된 회원 수
+    private long imported;
+
+    //건너뛴 행 수
+    private long rejected;
+
+    //건너뛴 이유 ("줄 번호 : 이유", 앞에서부터 일부만)
+    private List<String> errors;
+
+    private long elapsedMillis;
+
+    //초당 등록된 회원 수 (건너뛴 행은 세지 않음)
+    public double getRowsPerSecond() {
+        return (elapsedMillis > 0) ? imported * 1000.0 / elapsedMillis : 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.healthyclub.dto;
+
+import com.example.healthyclub.entity.UserEntity;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+//회원 정보 응답 (가입 / 조회 / 수정 / 탈퇴)
+//엔티티를 그대로 내보내지 않으므로 비밀번호 해시가 빠지고, 직렬화하면서 지연 로딩이 일어나지 않는다
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileDTO {
+
+    private Long id;
+    private String userId;
+    private String name;
+    private String nickname;
+    private String email;
+    private int height;
+    private int weight;
+    private String gender;
+    private String phone;
+    private int age;
+    private List<String> exerciseType;
+    private LocalDate joinDate;
+    private LocalDate updateDate;
+
+    public UserProfileDTO(UserSnapshot user){
+        this(user.getId(), user.getUserId(), user.getName(), user.getNickname(), user.getEmail(),
+                user.getHeight(), user.getWeight(), user.getGender(), user.getPhone(), user.getAge(),
+                user.getExerciseType(), user.getJoinDate(), user.getUpdateDate());
+    }
+
+    //exerciseType이 이미 메모리에 있는 엔티티(요청으로 만든 엔티티 등)로만 만들어야 함
+    public UserProfileDTO(UserEntity user){
+        this(user.getId(), user.getUserId(), user.getName(), user.getNickname(), user.getEmail(),
+                user.getHeight(), user.getWeight(), user.getGender(), user.getPhone(), user.getAge(),
+                (user.getExerciseType() != null) ? new ArrayList<>(user.getExerciseType()) : List.of(),
+                user.getJoinDate(), user.getUpdateDate());
+    }
+}
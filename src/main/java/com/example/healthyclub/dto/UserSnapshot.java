@@ -0,0 +1,55 @@
+package com.example.healthyclub.dto;
+
+import com.example.healthyclub.entity.UserEntity;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+//UserCache에 저장하는 회원 정보 (수정할 수 없음)
+//여러 요청이 같은 객체를 그대로 공유하므로 필드는 모두 final, 운동 종목도 수정할 수 없는 리스트
+@Getter
+@ToString(exclude = "password")
+public class UserSnapshot {
+
+    private final Long id;
+    private final String name;
+    private final String userId;
+    private final String password;
+    private final String nickname;
+    private final String email;
+    private final int height;
+    private final int weight;
+    private final String gender;
+    private final String phone;
+    private final int age;
+    private final List<String> exerciseType;
+    private final LocalDate joinDate;
+    private final LocalDate updateDate;
+
+    //exerciseType이 초기화된 엔티티로 만들어야 함 (지연 로딩 컬렉션을 여기서 읽음)
+    public UserSnapshot(UserEntity user) {
+        this.id = user.getId();
+        this.name = user.getName();
+        this.userId = user.getUserId();
+        this.password = user.getPassword();
+        this.nickname = user.getNickname();
+        this.email = user.getEmail();
+        this.height = user.getHeight();
+        this.weight = user.getWeight();
+        this.gender = user.getGender();
+        this.phone = user.getPhone();
+        this.age = user.getAge();
+        this.exerciseType = (user.getExerciseType() != null) ? List.copyOf(user.getExerciseType()) : List.of();
+        this.joinDate = user.getJoinDate();
+        this.updateDate = user.getUpdateDate();
+    }
+
+    //수정해도 캐시에 영향이 없는 새 엔티티 (영속 상태 아님)
+    public UserEntity toEntity() {
+        return new UserEntity(id, name, userId, password, nickname, email, height, weight, gender, phone, age,
+                new ArrayList<>(exerciseType), joinDate, updateDate);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.healthyclub.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+//친구 목록 등에 보여줄 회원 요약 정보
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    private Long id;
+
+    private String nickname;
+
+    private List<String> exerciseType;
+}
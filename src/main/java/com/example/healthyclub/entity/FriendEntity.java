@@ -0,0 +1,45 @@
+package com.example.healthyclub.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//친구 관계 한 건 (userId가 friendId를 친구로 추가함)
+//(user_id, friend_id)가 기본 키라서 같은 친구를 두 번 추가할 수 없고, friend_id 인덱스로 "나를 친구로 추가한 유저"도 바로 찾는다
+//회원이 탈퇴하면 그 회원이 들어간 관계는 DB에서 같이 지워진다
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter @Setter
+@IdClass(FriendId.class)
+@Table(name = "friend", indexes = @Index(name = "idx_friend_friend_id", columnList = "friend_id"))
+public class FriendEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "friend_id")
+    private Long friendId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    //FK 제약조건용 (읽기 전용 - 값은 위의 id 컬럼으로 넣는다)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private UserEntity user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "friend_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private UserEntity friend;
+}
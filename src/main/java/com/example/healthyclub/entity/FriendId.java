@@ -0,0 +1,20 @@
+package com.example.healthyclub.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+//친구 관계의 키 (user_id, friend_id)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class FriendId implements Serializable {
+
+    private Long userId;
+
+    private Long friendId;
+}
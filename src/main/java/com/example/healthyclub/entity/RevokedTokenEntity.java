@@ -0,0 +1,31 @@
+package com.example.healthyclub.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//로그아웃 / 회원탈퇴로 폐기된 토큰 (토큰의 jti를 기록해두고 만료일이 지나면 지운다)
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter @Setter
+@Table(name = "revoked_token", indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"))
+public class RevokedTokenEntity {
+
+    //토큰 식별자(jti)
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    //토큰 주인 (회원 식별 번호)
+    @Column(name = "user_id")
+    private Long userId;
+
+    //토큰 만료일 - 이 시간이 지나면 어차피 토큰이 무효이므로 기록을 지워도 된다
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
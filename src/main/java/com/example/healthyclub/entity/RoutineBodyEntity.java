@@ -0,0 +1,45 @@
+package com.example.healthyclub.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+//루틴 내용(본문)을 내용의 해시로 한 번만 저장하는 테이블
+//같은 내용의 루틴(복사한 루틴 등)은 모두 같은 행을 가리키고, 아무 루틴도 가리키지 않게 된 행은 RoutineBodyService가 주기적으로 지운다
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter @Setter
+@Table(name = "routine_body")
+public class RoutineBodyEntity {
+
+    //본문의 SHA-256 (16진수 64자리)
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    //루틴 본문
+    @Lob
+    @Column(nullable = false)
+    private String body;
+
+    //본문 내용으로 해시 계산
+    public static String hashOf(String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(64);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+}
@@ -14,14 +14,20 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter @Setter
-@Table(name="routine")
+@Table(name="routine", indexes = @Index(name = "idx_routine_user_date", columnList = "user_id, date"))
 public class RoutineEntity {
+
+    //시퀀스에서 한 번에 받아오는 id 개수
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    //IDENTITY는 insert마다 DB가 id를 만들어야 해서 JDBC 배치가 안 되므로 시퀀스에서 50개씩 미리 받아온다 (pooled)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "routine_seq")
+    @SequenceGenerator(name = "routine_seq", sequenceName = "routine_seq", allocationSize = RoutineEntity.ID_ALLOCATION_SIZE)
     private Long id;
 
-    //user_id FK
-    @ManyToOne
+    //user_id FK - 루틴을 다룰 때는 대부분 user의 id만 필요하므로 user 엔티티는 실제로 쓸 때만 읽어온다
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="user_id")
     private UserEntity user;
 
@@ -30,12 +36,17 @@ public class RoutineEntity {
     @DateTimeFormat(pattern="yyyy-MM-dd")
     private LocalDate date;
 
-    //루틴
+    //루틴 - 본문 테이블(routine_body)이 생기기 전에 저장된 루틴만 사용. 새 루틴은 비워두고 body를 사용한다
     @Column
     private String routine;
 
-    //유저 엔티티와 루틴 dto로 루틴 엔티티 생성
-    public static RoutineEntity toEntity(RoutineDTO routineDTO, UserEntity userEntity){
+    //루틴 본문 - 내용이 같은 루틴(복사한 루틴 등)은 routine_body의 같은 행을 가리킨다
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "body_hash")
+    private RoutineBodyEntity body;
+
+    //유저 엔티티와 루틴 dto, 본문으로 루틴 엔티티 생성
+    public static RoutineEntity toEntity(RoutineDTO routineDTO, UserEntity userEntity, RoutineBodyEntity body){
         if (routineDTO.getId()!=null){
             throw new IllegalArgumentException("루틴 생성 실패. 루틴 아이디가 없어야 함");
         }
@@ -44,13 +55,20 @@ public class RoutineEntity {
                 routineDTO.getId(),
                 userEntity,
                 routineDTO.getDate(),
-                routineDTO.getRoutine()
+                null,
+                body
         );
     }
 
-    //루틴 엔티티를 수정 폼으로 받은 dto를 이용해서 수정하는 메소드
-    public void patch(RoutineDTO routineDTO) {
+    //루틴 내용 (본문이 있으면 본문, 없으면 예전 컬럼)
+    public String getRoutine() {
+        return (body != null) ? body.getBody() : routine;
+    }
+
+    //루틴 엔티티를 수정 폼으로 받은 dto와 새 본문을 이용해서 수정하는 메소드
+    public void patch(RoutineDTO routineDTO, RoutineBodyEntity body) {
         this.date=routineDTO.getDate();
-        this.routine=routineDTO.getRoutine();
+        this.routine=null;
+        this.body=body;
     }
 }
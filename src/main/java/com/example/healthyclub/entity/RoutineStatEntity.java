@@ -0,0 +1,39 @@
+package com.example.healthyclub.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+//유저별 / 운동별 / 주별 루틴 통계
+//루틴이 바뀔 때마다 바뀐 만큼만 더하고 빼서(RoutineStatService) 유지하므로, 통계를 볼 때 루틴을 다시 읽지 않는다
+//기본 키가 (user_id, exercise, week_start) 순이라 한 유저의 한 운동을 기간으로 조회하면 기본 키 범위만 읽는다
+//모든 운동을 기간으로 조회할 때는 (user_id, week_start) 인덱스를 사용
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter @Setter
+@Table(name = "routine_stat", indexes = @Index(name = "idx_routine_stat_user_week", columnList = "user_id, week_start"))
+public class RoutineStatEntity {
+
+    @EmbeddedId
+    private RoutineStatId id;
+
+    //이 운동이 들어간 루틴 수
+    @Column(nullable = false)
+    private int routines;
+
+    //세트 수 합
+    @Column(nullable = false)
+    private int sets;
+
+    //횟수 합
+    @Column(nullable = false)
+    private int reps;
+
+    //볼륨(횟수 * 무게kg) 합
+    @Column(nullable = false)
+    private double volume;
+}
@@ -0,0 +1,30 @@
+package com.example.healthyclub.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+//루틴 통계의 키 (유저, 운동, 주)
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class RoutineStatId implements Serializable {
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(length = 50)
+    private String exercise;
+
+    //그 주의 월요일
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+}
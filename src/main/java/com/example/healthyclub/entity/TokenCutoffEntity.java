@@ -0,0 +1,32 @@
+package com.example.healthyclub.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//회원탈퇴처럼 회원의 토큰을 한꺼번에 폐기할 때의 기준 시각 (이 시각 이전에 발급된 그 회원의 토큰은 모두 무효)
+//그 시각에 발급된 토큰까지 만료되면 기록을 지운다
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter @Setter
+@Table(name = "token_cutoff", indexes = @Index(name = "idx_token_cutoff_expires_at", columnList = "expires_at"))
+public class TokenCutoffEntity {
+
+    //회원 식별 번호
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    //이 시각 이전(같은 시각 포함)에 발급된 토큰은 폐기된 것으로 봄
+    @Column(name = "revoked_before")
+    private LocalDateTime revokedBefore;
+
+    //revokedBefore에 발급된 토큰의 만료일 - 이 시간이 지나면 기록을 지워도 된다
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -12,8 +12,20 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "user")
+//아이디 / 닉네임 / 이메일은 회원마다 달라야 하므로 유니크 제약 (로그인과 중복 확인에서 값으로 찾을 때 인덱스로도 쓰임)
+//서버가 여러 대이거나 동시에 가입해도 중복을 막는 것은 이 제약이고, 메모리의 블룸 필터는 미리 걸러내는 용도
+@Table(name = "user", uniqueConstraints = {
+        @UniqueConstraint(name = UserEntity.UK_USER_ID, columnNames = "userId"),
+        @UniqueConstraint(name = UserEntity.UK_NICKNAME, columnNames = "nickname"),
+        @UniqueConstraint(name = UserEntity.UK_EMAIL, columnNames = "email")
+})
 public class UserEntity {
+    //유니크 제약 이름 (위반 예외에서 어떤 값이 겹쳤는지 찾을 때 사용)
+    public static final String UK_USER_ID = "uk_user_user_id";
+    public static final String UK_NICKNAME = "uk_user_nickname";
+    public static final String UK_EMAIL = "uk_user_email";
+
+
     //회원 개인 식별 번호
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -66,12 +78,6 @@ public class UserEntity {
     @CollectionTable(name = "exercise_type")
     private List<String> exerciseType;
 
-    @Column
-    @Nullable
-    @ElementCollection(fetch = FetchType.LAZY)
-    @CollectionTable(name = "friend_table")
-    private List<String> friends;
-
     @Column(name = "join_date")
    private LocalDate joinDate;
 
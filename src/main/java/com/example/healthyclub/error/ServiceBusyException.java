@@ -0,0 +1,16 @@
+package com.example.healthyclub.error;
+
+import lombok.Getter;
+
+//서버가 감당할 수 있는 양을 넘어서 요청을 바로 거절할 때 사용하는 예외 (503 + Retry-After 로 응답)
+@Getter
+public class ServiceBusyException extends RuntimeException {
+
+    //클라이언트에게 몇 초 뒤에 다시 시도하라고 알려줄지
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.healthyclub.error;
+
+import lombok.Getter;
+
+//같은 아이디 / IP 에서 너무 자주 요청할 때 사용하는 예외 (429 + Retry-After 로 응답)
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    //클라이언트에게 몇 초 뒤에 다시 시도하라고 알려줄지
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
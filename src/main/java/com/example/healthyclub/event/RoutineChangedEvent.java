@@ -0,0 +1,47 @@
+package com.example.healthyclub.event;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+//루틴이 생성 / 수정 / 삭제(복사 포함)되었을 때 RoutineService가 발행하는 이벤트
+//검색 색인처럼 루틴 내용으로 만든 데이터는 @TransactionalEventListener로 받아서 커밋된 변경만 반영한다
+@Getter
+@ToString
+@AllArgsConstructor
+public class RoutineChangedEvent {
+
+    //변경 전 루틴 (생성이면 null)
+    private final RoutineDTO before;
+
+    //변경 후 루틴 (삭제면 null)
+    private final RoutineDTO after;
+
+    //다른 루틴을 복사해서 만든 루틴인지
+    private final boolean copied;
+
+    public static RoutineChangedEvent created(RoutineDTO after) {
+        return new RoutineChangedEvent(null, after, false);
+    }
+
+    public static RoutineChangedEvent copied(RoutineDTO after) {
+        return new RoutineChangedEvent(null, after, true);
+    }
+
+    public static RoutineChangedEvent updated(RoutineDTO before, RoutineDTO after) {
+        return new RoutineChangedEvent(before, after, false);
+    }
+
+    public static RoutineChangedEvent deleted(RoutineDTO before) {
+        return new RoutineChangedEvent(before, null, false);
+    }
+
+    public boolean isCreated() {
+        return before == null && after != null;
+    }
+
+    public boolean isDeleted() {
+        return before != null && after == null;
+    }
+}
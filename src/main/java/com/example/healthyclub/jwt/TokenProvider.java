@@ -2,15 +2,18 @@ package com.example.healthyclub.jwt;
 
 import com.example.healthyclub.entity.UserEntity;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 @Slf4j
@@ -21,19 +24,29 @@ public class TokenProvider {
     private static final String SECRET_KEY = "Z4NSl604sgyHJj1qwEkR3ycUeR4uUAt7WJraD7EN3O9DVM4yyYuHxMEbSF4XXyYJkal13eqgB0F7Bq4H";
     //서명이 바뀌면 안되니까 final로 설정
 
+    //서명 키와 파서는 매 요청마다 만들 필요가 없으므로 한 번만 만들어서 재사용 (JwtParser는 thread-safe)
+    private static final SecretKey SIGNING_KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(SIGNING_KEY) //디코딩
+            .build();
+
+    //토큰 유효 기간
+    public static final Duration TOKEN_LIFETIME = Duration.ofDays(1);
+
     //토큰 발행 메서드
     public String create(UserEntity userEntitiy) {
         //기한은 지금부터 1일로 설정
         Date expriyDate = Date.from(
                 Instant.now()
-                        .plus(1, ChronoUnit.DAYS) //시간 단위로도 할 수 있다
+                        .plus(TOKEN_LIFETIME) //시간 단위로도 할 수 있다
         );
 
         return Jwts.builder()
                 //header에 들어갈 내용 및 서명을 위한 SECRET_KEY
-                .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()), SignatureAlgorithm.HS512) //인코딩
+                .signWith(SIGNING_KEY, SignatureAlgorithm.HS512) //인코딩
                 //payload에 들어갈 내용
                 .setSubject(String.valueOf(userEntitiy.getId())) //sub - 회원식별자 >>>>>>id로 수정 : 이것만 수정하고 테스트 : 정상작동
+                .setId(UUID.randomUUID().toString()) //jti - 토큰 식별자 (로그아웃 / 회원탈퇴 시 폐기용)
                 .setIssuer("healthyclub app") //iss - 토큰발행자 이름
                 .setIssuedAt(new Date()) //iot - 토큰 발행일
                 .setExpiration(expriyDate) //exp - 토큰 만료일
@@ -43,12 +56,11 @@ public class TokenProvider {
 
     //토큰을 디코딩 및 파싱하고 트큰의 위조여부를 확인
     public String validateAndGetUserId(String token){
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes())) //디코딩
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return validateAndGetClaims(token).getSubject();
+    }
 
-        return claims.getSubject();
+    //서명 검증 후 클레임 전체를 반환 (만료일 등 다른 클레임이 필요할 때 사용)
+    public Claims validateAndGetClaims(String token){
+        return PARSER.parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package com.example.healthyclub.jwt;
+
+import com.example.healthyclub.entity.RevokedTokenEntity;
+import com.example.healthyclub.entity.TokenCutoffEntity;
+import com.example.healthyclub.repository.RevokedTokenRepository;
+import com.example.healthyclub.repository.TokenCutoffRepository;
+import com.example.healthyclub.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//로그아웃 / 회원탈퇴 시 토큰을 폐기하는 서비스
+//폐기된 jti는 DB(revoked_token)에 토큰 만료일까지 남겨두고, 메모리에는 블룸 필터로 들고 있는다
+//대부분의 요청(폐기되지 않은 토큰)은 블룸 필터에서 바로 "없음"이 나오므로 DB를 보지 않는다
+//회원탈퇴는 그 회원의 토큰을 모두 폐기해야 하므로 jti 대신 회원별 기준 시각(token_cutoff)을 남기고, 그 전에 발급된 토큰을 거절한다
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository repository;
+    private final TokenCutoffRepository cutoffRepository;
+    private final TokenProvider tokenProvider;
+    private final VerifiedTokenCache tokenCache;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    //재구성할 때 통째로 바꿔 끼우므로 volatile
+    private volatile BloomFilter filter;
+    //회원 id -> 이 시각(epoch millis) 이전에 발급된 토큰은 폐기. 탈퇴한 회원 수만큼만 들어가고 재구성할 때 바꿔 끼움
+    private volatile Map<Long, Long> cutoffs = Map.of();
+    //revoke와 rebuild가 겹쳐서 새 필터에서 폐기 기록이 빠지는 일이 없도록
+    private final Object lock = new Object();
+
+    private final Counter filterPasses;
+    private final Counter storeLookups;
+
+    public TokenRevocationService(RevokedTokenRepository repository,
+                                  TokenCutoffRepository cutoffRepository,
+                                  TokenProvider tokenProvider,
+                                  VerifiedTokenCache tokenCache,
+                                  MeterRegistry registry,
+                                  @Value("${healthyclub.jwt.revocation.expected-size:100000}") long expectedRevocations,
+                                  @Value("${healthyclub.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.cutoffRepository = cutoffRepository;
+        this.tokenProvider = tokenProvider;
+        this.tokenCache = tokenCache;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+
+        this.filterPasses = Counter.builder("jwt.revocation.checks").tag("result", "filter-pass").register(registry);
+        this.storeLookups = Counter.builder("jwt.revocation.checks").tag("result", "store-lookup").register(registry);
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    //검증된 토큰이 폐기되었는지 (회원의 토큰을 한꺼번에 폐기한 뒤라면 그 전에 발급된 토큰도 폐기)
+    public boolean isRevoked(VerifiedToken token) {
+        if (isRevokedByCutoff(token.getUserId(), token.getIssuedAt())) return true;
+        return isRevoked(token.getTokenId());
+    }
+
+    //폐기된 토큰인지 확인. jti가 없는 토큰(이전 버전에서 발급)은 폐기할 수 없으므로 false
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        if (!filter.mightContain(jti)) {
+            filterPasses.increment();
+            return false;
+        }
+        //블룸 필터에서 "있을 수도 있음"이 나왔을 때만 DB 확인
+        storeLookups.increment();
+        return repository.existsById(jti);
+    }
+
+    //토큰 원문으로 폐기 (서명이 올바른 토큰만 폐기 가능)
+    public void revoke(String token) {
+        Claims claims = tokenProvider.validateAndGetClaims(token);
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            log.info("jti가 없는 토큰은 폐기할 수 없습니다 - sub : {}", claims.getSubject());
+            return;
+        }
+        Long userId = Long.parseLong(claims.getSubject());
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+
+        synchronized (lock) {
+            repository.save(new RevokedTokenEntity(claims.getId(), userId, expiresAt));
+            filter.put(claims.getId());
+        }
+        tokenCache.remove(token);
+        log.info("token revoked - jti : {}, user : {}", claims.getId(), userId);
+    }
+
+    //회원의 토큰을 모두 폐기 (회원탈퇴) - 지금까지 발급된 토큰은 jti와 상관없이 전부 무효
+    //iat는 초 단위라서 같은 초에 발급된 토큰까지 무효가 된다 (탈퇴한 회원은 다시 로그인할 수 없으므로 문제없음)
+    public void revokeAll(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(TokenProvider.TOKEN_LIFETIME);
+        long cutoff = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        //DB 저장이 실패해도 이 서버에서는 바로 거절되도록 메모리에 먼저 반영
+        synchronized (lock) {
+            Map<Long, Long> next = new HashMap<>(cutoffs);
+            next.put(userId, cutoff);
+            cutoffs = next;
+            cutoffRepository.save(new TokenCutoffEntity(userId, now, expiresAt));
+        }
+        log.info("all tokens revoked - user : {}", userId);
+    }
+
+    //만료된 기록을 지우고 블룸 필터를 새로 만든다 (블룸 필터는 삭제가 안 되므로 주기적으로 다시 만듦)
+    @Scheduled(fixedDelayString = "${healthyclub.jwt.revocation.rebuild-interval-ms:3600000}",
+            initialDelayString = "${healthyclub.jwt.revocation.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
+        synchronized (lock) {
+            int deleted = repository.deleteExpired(now);
+            List<String> active = repository.findActiveJtis(now);
+
+            BloomFilter next = new BloomFilter(Math.max(expectedRevocations, active.size() * 2L), falsePositiveRate);
+            active.forEach(next::put);
+            this.filter = next;
+
+            cutoffRepository.deleteExpired(now);
+            Map<Long, Long> nextCutoffs = new HashMap<>();
+            for (TokenCutoffEntity c : cutoffRepository.findActive(now)) {
+                nextCutoffs.put(c.getUserId(), c.getRevokedBefore().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            this.cutoffs = nextCutoffs;
+
+            log.info("revocation filter rebuilt - active : {}, expired removed : {}, user cutoffs : {}",
+                    active.size(), deleted, nextCutoffs.size());
+        }
+    }
+
+    private boolean isRevokedByCutoff(String userId, long issuedAt) {
+        Map<Long, Long> current = cutoffs;
+        if (current.isEmpty() || userId == null) return false;
+        Long cutoff;
+        try {
+            cutoff = current.get(Long.parseLong(userId));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return cutoff != null && issuedAt <= cutoff;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.healthyclub.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//서명 검증이 끝난 토큰에서 필터가 쓰는 값만 뽑아둔 것
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    //sub - 회원식별자
+    private final String userId;
+
+    //jti - 토큰 식별자 (폐기 확인용, 이전 버전 토큰에는 없을 수 있음)
+    private final String tokenId;
+
+    //exp - 만료일 (epoch millis)
+    private final long expiresAt;
+
+    //iat - 발급일 (epoch millis, 없으면 0) - 회원의 토큰을 한꺼번에 폐기했는지 확인용
+    private final long issuedAt;
+}
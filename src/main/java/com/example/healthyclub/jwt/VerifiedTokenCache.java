@@ -0,0 +1,120 @@
+package com.example.healthyclub.jwt;
+
+import com.example.healthyclub.util.BoundedTtlMap;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.LongAdder;
+
+//한 번 서명 검증이 끝난 토큰을 기억해두는 캐시
+//같은 토큰이 세션 동안 수백 번 들어오므로 두 번째부터는 HMAC 검증 + JSON 파싱 대신 해시 조회만 한다
+//키는 토큰 원문이 아니라 SHA-256 다이제스트(앞 128비트)이고, 엔트리는 토큰의 exp 이후로는 절대 살아남지 않는다
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final BoundedTtlMap<TokenDigest, VerifiedToken> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    //MessageDigest는 thread-safe 하지 않으므로 스레드마다 하나씩
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    });
+
+    public VerifiedTokenCache(@Value("${healthyclub.jwt.cache.max-size:10000}") int maxSize, MeterRegistry registry) {
+        this.entries = new BoundedTtlMap<>(maxSize);
+
+        FunctionCounter.builder("jwt.token.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("서명 검증을 생략한 토큰 수")
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("서명 검증을 수행한 토큰 수")
+                .register(registry);
+        Gauge.builder("jwt.token.cache.size", entries, BoundedTtlMap::size)
+                .register(registry);
+    }
+
+    //검증된 적 있는 토큰이면 검증 결과를, 아니면 null을 반환
+    public VerifiedToken get(String token) {
+        //만료된 토큰은 캐시에서 빠지고 원래 검증 경로로 간다 (거기서 ExpiredJwtException 발생)
+        VerifiedToken entry = entries.get(digest(token));
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    //서명 검증을 통과한 토큰을 저장. 토큰의 exp가 지나면 꺼내지지 않는다
+    public void put(String token, VerifiedToken verified) {
+        if (verified.getUserId() == null || verified.getExpiresAt() <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(digest(token), verified, verified.getExpiresAt());
+    }
+
+    //해당 토큰을 캐시에서 제거 (로그아웃 등)
+    public void remove(String token) {
+        entries.remove(digest(token));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static TokenDigest digest(String token) {
+        byte[] d = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return new TokenDigest(toLong(d, 0), toLong(d, 8));
+    }
+
+    private static long toLong(byte[] b, int off) {
+        long v = 0;
+        for (int i = off; i < off + 8; i++) {
+            v = (v << 8) | (b[i] & 0xFF);
+        }
+        return v;
+    }
+
+    private static final class TokenDigest {
+        private final long high;
+        private final long low;
+
+        private TokenDigest(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TokenDigest)) return false;
+            TokenDigest other = (TokenDigest) o;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high);
+        }
+    }
+}
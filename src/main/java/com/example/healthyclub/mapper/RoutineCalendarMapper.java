@@ -0,0 +1,25 @@
+package com.example.healthyclub.mapper;
+
+import com.example.healthyclub.dto.RoutineCalendarDayDTO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//루틴 달력 조회용 MyBatis 매퍼 (읽기 전용)
+@Mapper
+public interface RoutineCalendarMapper {
+
+    //from 이상 to 미만 기간의 루틴을 날짜별로 묶어서 하루에 한 행씩 반환
+    //(user_id, date) 인덱스 범위만 읽고 엔티티는 만들지 않는다
+    @Select("SELECT date AS date, COUNT(*) AS count, MIN(id) AS firstRoutineId " +
+            "FROM routine " +
+            "WHERE user_id = #{userId} AND date >= #{from} AND date < #{to} " +
+            "GROUP BY date " +
+            "ORDER BY date")
+    List<RoutineCalendarDayDTO> countByDay(@Param("userId") Long userId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+}
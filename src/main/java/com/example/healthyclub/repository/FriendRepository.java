@@ -0,0 +1,23 @@
+package com.example.healthyclub.repository;
+
+import com.example.healthyclub.entity.FriendEntity;
+import com.example.healthyclub.entity.FriendId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface FriendRepository extends JpaRepository<FriendEntity, FriendId> {
+
+    //친구 추가 : insert 한 번 (이미 친구이거나 없는 유저면 DataIntegrityViolationException)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO friend (user_id, friend_id, created_at) VALUES (:userId, :friendId, NOW())", nativeQuery = true)
+    int insert(Long userId, Long friendId);
+
+    //친구 삭제 : delete 한 번 (친구가 아니었으면 0 반환)
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM friend WHERE user_id = :userId AND friend_id = :friendId", nativeQuery = true)
+    int deleteEdge(Long userId, Long friendId);
+}
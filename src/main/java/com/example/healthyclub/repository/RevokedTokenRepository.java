@@ -0,0 +1,23 @@
+package com.example.healthyclub.repository;
+
+import com.example.healthyclub.entity.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    //아직 만료되지 않은 폐기 토큰의 jti만 가져옴 (블룸 필터 재구성용)
+    @Query("select r.jti from RevokedTokenEntity r where r.expiresAt > :now")
+    List<String> findActiveJtis(LocalDateTime now);
+
+    //만료된 기록 정리
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedTokenEntity r where r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,32 @@
+package com.example.healthyclub.repository;
+
+import com.example.healthyclub.entity.RoutineBodyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RoutineBodyRepository extends JpaRepository<RoutineBodyEntity, String> {
+
+    //본문이 없으면 새로 만든다. 이미 있으면 아무것도 쓰지 않는다
+    //(이미 있는 행에는 공유 잠금만 걸리므로 같은 본문을 동시에 저장해도 서로 기다리지 않고,
+    // 이 트랜잭션이 끝날 때까지 정리 작업(deleteUnreferenced)이 이 행을 지우지 못한다)
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT IGNORE INTO routine_body (hash, body) VALUES (:hash, :body)", nativeQuery = true)
+    int insertIfAbsent(String hash, String body);
+
+    //hash 다음부터 hash 순으로 limit개 (정리 작업이 본문 테이블을 나눠서 훑을 때 사용)
+    @Query(value = "SELECT hash FROM routine_body WHERE hash > :after ORDER BY hash LIMIT :limit", nativeQuery = true)
+    List<String> findHashesAfter(String after, int limit);
+
+    //hashes 중 아무 루틴도 가리키지 않는 본문 삭제
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM routine_body WHERE hash IN (:hashes) " +
+            "AND NOT EXISTS (SELECT 1 FROM routine r WHERE r.body_hash = routine_body.hash)", nativeQuery = true)
+    int deleteUnreferenced(Collection<String> hashes);
+}
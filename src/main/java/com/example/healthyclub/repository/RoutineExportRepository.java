@@ -0,0 +1,43 @@
+package com.example.healthyclub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+//전체 루틴을 처음부터 훑는 JDBC 조회 (서버 시작 시 검색 색인 / 통계 만들기)
+//엔티티 / 리스트로 모으지 않고 forward-only 커서로 한 행씩 읽어서 바로 넘겨준다 (힙 사용량이 기록 양과 무관)
+//읽는 도중에 같은 연결로 다른 쿼리를 보내야 하면(한 트랜잭션 안에서 읽으면서 쓰기) streamAfter로 나눠서 읽는다
+@Repository
+@RequiredArgsConstructor
+public class RoutineExportRepository {
+
+    //한 번에 DB에서 받아올 행 수
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_ROUTINES =
+            "SELECT r.id, r.user_id, r.date, COALESCE(b.body, r.routine) AS routine " +
+                    "FROM routine r LEFT JOIN routine_body b ON b.hash = r.body_hash ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    //전체 루틴을 id 순으로 한 행씩 handler에게 넘김 (검색 색인 / 통계를 처음부터 만들 때 사용)
+    public void streamAll(RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    SELECT_ROUTINES + "ORDER BY r.id",
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+
+    //id가 afterId보다 큰 루틴을 id 순으로 limit개까지 handler에게 넘김 (커서 없이 한 번에 받아오므로 트랜잭션 안에서 나눠 읽으며 쓸 때 사용)
+    public void streamAfter(long afterId, int limit, RowCallbackHandler handler) {
+        jdbcTemplate.query(SELECT_ROUTINES + "WHERE r.id > ? ORDER BY r.id LIMIT ?", handler, afterId, limit);
+    }
+}
@@ -1,15 +1,60 @@
 package com.example.healthyclub.repository;
 
+import com.example.healthyclub.dto.RoutineDTO;
 import com.example.healthyclub.entity.RoutineEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RoutineRepository extends JpaRepository<RoutineEntity,Long> {
 
+    //읽기 전용 조회는 엔티티 대신 RoutineDTO로 바로 받는다 (생성자 프로젝션)
+    //r.user.id 는 routine.user_id 컬럼을 그대로 읽으므로 user 테이블을 조인하지 않고 영속성 컨텍스트에도 아무것도 올라가지 않는다
+    //본문은 routine_body에서 읽고, 본문 테이블이 생기기 전 루틴은 routine 컬럼에서 읽는다
+    String ROUTINE_DTO = "select new com.example.healthyclub.dto.RoutineDTO(r.id, r.user.id, r.date, coalesce(b.body, r.routine)) " +
+            "from RoutineEntity r left join r.body b ";
+
     //user_id가 userId인 루틴을 찾아서 리스트로 반환
-    @Query(value = "SELECT * FROM routine WHERE user_id = :userId", nativeQuery = true)
-    List<RoutineEntity> findByUserId(Long userId);
+    @Query(ROUTINE_DTO + "where r.user.id = :userId")
+    List<RoutineDTO> findDTOsByUserId(Long userId);
+
+    //id가 routineId인 루틴
+    @Query(ROUTINE_DTO + "where r.id = :routineId")
+    Optional<RoutineDTO> findDTOById(Long routineId);
+
+    //id가 routineIds 중 하나인 루틴 (순서는 보장하지 않음)
+    @Query(ROUTINE_DTO + "where r.id in :routineIds")
+    List<RoutineDTO> findDTOsByIdIn(Collection<Long> routineIds);
+
+    //user_id가 userId인 루틴을 (date, id) 순으로 반환 (루틴 목록 캐시를 채울 때 사용, 개수는 pageable로 제한)
+    @Query(ROUTINE_DTO + "where r.user.id = :userId order by r.date, r.id")
+    List<RoutineDTO> findSortedByUserId(Long userId, Pageable limit);
+
+    //user_id가 userId이고 날짜가 from ~ to 인 루틴 중 (afterDate, afterId) 다음부터 (date, id) 순으로 반환 (개수는 pageable로 제한)
+    //(user_id, date) 인덱스를 타고 정렬된 순서대로 읽다가 페이지 크기에서 멈추므로 전체 기록 양과 상관없이 페이지 크기만큼만 읽는다
+    @Query(ROUTINE_DTO + "where r.user.id = :userId and r.date >= :from and r.date <= :to " +
+            "and (r.date > :afterDate or (r.date = :afterDate and r.id > :afterId)) " +
+            "order by r.date, r.id")
+    List<RoutineDTO> findPage(Long userId, LocalDate from, LocalDate to, LocalDate afterDate, Long afterId, Pageable limit);
+
+    //user_id가 userId이고 날짜가 없는 루틴 중 afterId 다음부터 id 순으로 반환 (개수는 pageable로 제한)
+    //(date, id) 순서에서 날짜가 없는 루틴(NULL)은 맨 앞이므로 from 조건이 없을 때 findPage보다 먼저 읽는다
+    @Query(ROUTINE_DTO + "where r.user.id = :userId and r.date is null and r.id > :afterId order by r.id")
+    List<RoutineDTO> findUndatedPage(Long userId, Long afterId, Pageable limit);
+
+    //userId의 루틴 중 id가 before보다 작은 것 (id 역순, 개수는 pageable로 제한) - 피드
+    @Query("select r.id from RoutineEntity r where r.user.id = :userId and r.id < :before order by r.id desc")
+    List<Long> findIdsBefore(Long userId, Long before, Pageable limit);
+
+    //userId가 추가한 친구들의 루틴 중 id가 before보다 작은 것 (id 역순, 개수는 pageable로 제한)
+    //피드 타임라인을 만들 때, 타임라인에 남아 있지 않은 오래된 페이지를 읽을 때
+    @Query("select r.id from RoutineEntity r where r.user.id in " +
+            "(select f.friendId from FriendEntity f where f.userId = :userId) and r.id < :before order by r.id desc")
+    List<Long> findIdsOfFriendsBefore(Long userId, Long before, Pageable limit);
 
 }
@@ -0,0 +1,26 @@
+package com.example.healthyclub.repository;
+
+import com.example.healthyclub.dto.RoutineStatDTO;
+import com.example.healthyclub.entity.RoutineStatEntity;
+import com.example.healthyclub.entity.RoutineStatId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoutineStatRepository extends JpaRepository<RoutineStatEntity, RoutineStatId> {
+
+    String STAT_DTO = "select new com.example.healthyclub.dto.RoutineStatDTO(s.id.exercise, s.id.weekStart, s.routines, s.sets, s.reps, s.volume) " +
+            "from RoutineStatEntity s ";
+
+    //유저의 한 운동의 from ~ to 주 통계 (기본 키 범위 조회)
+    @Query(STAT_DTO + "where s.id.userId = :userId and s.id.exercise = :exercise " +
+            "and s.id.weekStart >= :from and s.id.weekStart <= :to order by s.id.weekStart")
+    List<RoutineStatDTO> findWeekly(Long userId, String exercise, LocalDate from, LocalDate to);
+
+    //유저의 모든 운동의 from ~ to 주 통계
+    @Query(STAT_DTO + "where s.id.userId = :userId and s.id.weekStart >= :from and s.id.weekStart <= :to " +
+            "order by s.id.exercise, s.id.weekStart")
+    List<RoutineStatDTO> findWeeklyAll(Long userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,23 @@
+package com.example.healthyclub.repository;
+
+import com.example.healthyclub.entity.TokenCutoffEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenCutoffRepository extends JpaRepository<TokenCutoffEntity, Long> {
+
+    //아직 만료되지 않은 기준 시각 (메모리 재구성용)
+    @Query("select c from TokenCutoffEntity c where c.expiresAt > :now")
+    List<TokenCutoffEntity> findActive(LocalDateTime now);
+
+    //만료된 기록 정리
+    @Transactional
+    @Modifying
+    @Query("delete from TokenCutoffEntity c where c.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
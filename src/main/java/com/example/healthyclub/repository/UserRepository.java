@@ -4,9 +4,14 @@ package com.example.healthyclub.repository;
 import com.example.healthyclub.entity.UserEntity;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
@@ -16,4 +21,40 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     @Query(value = "select * from User where id = :id", nativeQuery = true)
     UserEntity getUserById(Long id);
 
+    //회원 정보와 운동 종목을 fetch join 한 번으로 조회 (캐시에 넣을 스냅샷을 트랜잭션 밖에서 만들 수 있도록)
+    @Query("select distinct u from UserEntity u left join fetch u.exerciseType where u.id = :id")
+    Optional<UserEntity> findWithExerciseTypeById(Long id);
+
+    @Query("select distinct u from UserEntity u left join fetch u.exerciseType where u.userId = :userId")
+    Optional<UserEntity> findWithExerciseTypeByUserId(String userId);
+
+    //비밀번호 해시만 교체 (다른 곳에서 이미 바뀌었다면 덮어쓰지 않도록 이전 해시도 조건에 넣는다)
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int updatePassword(Long id, String oldPassword, String newPassword);
+
+    //회원 정보 수정 - 엔티티를 읽지 않고 바로 UPDATE (분리된 엔티티를 save 하면 merge가 먼저 SELECT를 보냄)
+    //가입일은 바꾸지 않는다. 수정된 행 수를 반환 (없는 회원이면 0)
+    @Modifying
+    @Query("update UserEntity u set u.name = :name, u.userId = :userId, u.password = :password, u.nickname = :nickname, " +
+            "u.email = :email, u.height = :height, u.weight = :weight, u.gender = :gender, u.phone = :phone, u.age = :age, " +
+            "u.updateDate = :updateDate where u.id = :id")
+    int updateProfile(Long id, String name, String userId, String password, String nickname, String email,
+                      int height, int weight, String gender, String phone, int age, LocalDate updateDate);
+
+    //운동 종목은 지우고 다시 넣음 (updateProfile과 같은 트랜잭션에서 호출)
+    @Modifying
+    @Query(value = "delete from exercise_type where user_entity_id = :id", nativeQuery = true)
+    int deleteExerciseTypes(Long id);
+
+    @Modifying
+    @Query(value = "insert into exercise_type (user_entity_id, exercise_type) values (:id, :exerciseType)", nativeQuery = true)
+    int insertExerciseType(Long id, String exerciseType);
+
+    //회원 요약 정보 (id, 닉네임, 운동 종목 하나)를 한 번에 조회 - 운동 종목이 여러 개면 종목마다 한 행, 없으면 종목이 null인 한 행
+    //엔티티를 만들지 않으므로 지연 로딩 컬렉션 조회가 따로 나가지 않는다
+    @Query("select u.id, u.nickname, e from UserEntity u left join u.exerciseType e where u.id in :ids")
+    List<Object[]> findSummaryRows(Collection<Long> ids);
+
 }
@@ -0,0 +1,48 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.error.TooManyRequestsException;
+import com.example.healthyclub.util.StripedTokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+//가입 전 중복 확인(/auth/available) 횟수 제한 (클라이언트 IP별)
+//로그인 없이 부를 수 있으므로, 스크립트로 아이디 / 이메일을 대량으로 넣어서 가입 여부를 알아내지 못하게 한다
+//확인하는 값 하나마다 한 번으로 센다 (한 요청에 세 필드를 보내면 세 번)
+@Component
+public class AvailabilityRateLimiter {
+
+    private final StripedTokenBucketLimiter byClientIp;
+    private final Counter rejected;
+
+    public AvailabilityRateLimiter(MeterRegistry registry,
+                                   @Value("${healthyclub.auth.availability-limit.ip.capacity:20}") int ipCapacity,
+                                   @Value("${healthyclub.auth.availability-limit.ip.per-minute:30}") double ipPerMinute,
+                                   @Value("${healthyclub.auth.availability-limit.max-keys:100000}") int maxKeys) {
+        this.byClientIp = new StripedTokenBucketLimiter(ipCapacity, ipPerMinute / 60, maxKeys);
+
+        this.rejected = Counter.builder("auth.availability.throttled").tag("key", "client-ip").register(registry);
+        Gauge.builder("auth.availability.throttle.keys", byClientIp, StripedTokenBucketLimiter::size).tag("key", "client-ip").register(registry);
+    }
+
+    //값 count개 확인을 기록. 한도를 넘으면 TooManyRequestsException
+    public void check(String clientIp, int count) {
+        if (clientIp == null) return;
+        for (int i = 0; i < count; i++) {
+            long wait = byClientIp.tryAcquire(clientIp);
+            if (wait > 0) {
+                rejected.increment();
+                throw tooMany(wait);
+            }
+        }
+    }
+
+    private TooManyRequestsException tooMany(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return new TooManyRequestsException("중복 확인 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.", seconds);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.util.ChunkedBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//운동 종목(exercise_type) -> 그 종목을 하는 유저 id 비트맵 (메모리)
+//유저마다 자기 종목 목록도 들고 있어서 종목이 바뀌면 달라진 종목의 비트맵만 고친다
+//DB가 원본이고 UserService가 가입 / 수정 / 탈퇴를 반영한 뒤에 여기도 바꾼다
+//다른 프로세스(CSV 일괄 등록 등)가 DB에 직접 넣은 값은 RecommendationService가 주기적으로 다시 읽어서 바꿔 끼운다
+@Component
+public class ExerciseTypeIndex {
+
+    private static final String[] NONE = new String[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    //종목 -> 유저 id (lock으로 보호)
+    private Map<String, ChunkedBitmap> usersByType = new HashMap<>();
+    //유저 id -> 종목 (lock으로 보호)
+    private Map<Long, String[]> typesByUser = new HashMap<>();
+    //다시 읽는 중에 update 된 유저 -> 종목, 다시 읽는 중이 아니면 null (lock으로 보호)
+    private Map<Long, String[]> changedDuringReload;
+
+    //겹치는 종목 수를 받는 콜백
+    public interface OverlapConsumer {
+        void accept(int userId, int sharedTypes);
+    }
+
+    //userId의 종목을 types로 바꿈 (비어 있으면 색인에서 뺌)
+    public void update(long userId, Collection<String> types) {
+        if (!indexable(userId)) return;
+        String[] normalized = normalize(types);
+
+        lock.writeLock().lock();
+        try {
+            apply(usersByType, typesByUser, userId, normalized);
+            if (changedDuringReload != null) changedDuringReload.put(userId, normalized);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        update(userId, List.of());
+    }
+
+    //DB에서 전부 다시 읽을 준비. 읽은 행은 Reload.add로 새 색인에 넣고 swap()으로 바꿔 끼운다
+    //읽는 동안에도 지금 색인으로 조회 / 수정이 되고, 그 사이 update 된 유저는 바꿔 끼울 때 다시 반영한다
+    //(update는 DB 커밋 뒤에 불리므로 메모리의 값이 읽은 행보다 최신)
+    Reload reload() {
+        lock.writeLock().lock();
+        try {
+            changedDuringReload = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new Reload();
+    }
+
+    final class Reload {
+        private final Map<String, ChunkedBitmap> usersByType = new HashMap<>();
+        private final Map<Long, String[]> typesByUser = new HashMap<>();
+
+        private Reload() {
+        }
+
+        //DB에서 읽은 (유저, 종목) 한 행을 더함
+        void add(long userId, String type) {
+            if (!indexable(userId)) return;
+            String normalized = normalizeType(type);
+            if (normalized.isEmpty()) return;
+
+            String[] previous = typesByUser.getOrDefault(userId, NONE);
+            if (contains(previous, normalized)) return;
+            String[] types = Arrays.copyOf(previous, previous.length + 1);
+            types[previous.length] = normalized;
+            typesByUser.put(userId, types);
+            usersByType.computeIfAbsent(normalized, t -> new ChunkedBitmap()).add((int) userId);
+        }
+
+        void swap() {
+            lock.writeLock().lock();
+            try {
+                changedDuringReload.forEach((userId, types) -> apply(usersByType, typesByUser, userId, types));
+                changedDuringReload = null;
+                ExerciseTypeIndex.this.usersByType = usersByType;
+                ExerciseTypeIndex.this.typesByUser = typesByUser;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        //읽다가 실패했을 때 지금 색인을 그대로 둠
+        void discard() {
+            lock.writeLock().lock();
+            try {
+                changedDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public List<String> typesOf(long userId) {
+        lock.readLock().lock();
+        try {
+            return List.of(typesByUser.getOrDefault(userId, NONE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //userId와 otherId가 같이 하는 종목 수
+    public int sharedTypes(long userId, long otherId) {
+        if (!indexable(otherId)) return 0;
+        lock.readLock().lock();
+        try {
+            int shared = 0;
+            for (String type : typesByUser.getOrDefault(userId, NONE)) {
+                if (usersByType.get(type).contains((int) otherId)) shared++;
+            }
+            return shared;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //userId와 종목이 하나라도 겹치는 유저마다 겹치는 종목 수를 넘겨줌 (exclude에 있는 유저는 건너뜀)
+    //유저마다 세지 않고 64명씩 단어 단위로 종목 비트맵들을 더한다 (비트별 덧셈기: counts[i]는 개수의 i번째 비트)
+    //consumer는 읽기 잠금을 잡은 채로 호출되므로 짧게 끝나야 함
+    public void forEachOverlap(long userId, ChunkedBitmap exclude, OverlapConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            String[] types = typesByUser.getOrDefault(userId, NONE);
+            if (types.length == 0) return;
+            ChunkedBitmap[] bitmaps = new ChunkedBitmap[types.length];
+            int wordCount = 0;
+            for (int i = 0; i < types.length; i++) {
+                bitmaps[i] = usersByType.get(types[i]);
+                wordCount = Math.max(wordCount, bitmaps[i].wordCount());
+            }
+            long[] counts = new long[32 - Integer.numberOfLeadingZeros(types.length)];
+            int wordsPerChunk = ChunkedBitmap.wordsPerChunk();
+
+            for (int chunkStart = 0; chunkStart < wordCount; chunkStart += wordsPerChunk) {
+                //모든 종목에서 비어 있는 블록은 통째로 건너뜀
+                if (allChunksEmpty(bitmaps, chunkStart)) continue;
+
+                for (int w = chunkStart; w < chunkStart + wordsPerChunk; w++) {
+                    Arrays.fill(counts, 0);
+                    long union = 0;
+                    for (ChunkedBitmap bitmap : bitmaps) {
+                        long carry = bitmap.word(w);
+                        union |= carry;
+                        for (int i = 0; i < counts.length && carry != 0; i++) {
+                            long next = counts[i] & carry;
+                            counts[i] ^= carry;
+                            carry = next;
+                        }
+                    }
+                    union &= ~exclude.word(w);
+                    while (union != 0) {
+                        int bit = Long.numberOfTrailingZeros(union);
+                        union &= union - 1;
+                        int shared = 0;
+                        for (int i = 0; i < counts.length; i++) {
+                            shared |= (int) ((counts[i] >>> bit) & 1) << i;
+                        }
+                        consumer.accept((w << 6) | bit, shared);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int typeCount() {
+        lock.readLock().lock();
+        try {
+            return usersByType.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String normalizeType(String type) {
+        return (type == null) ? "" : type.strip().toLowerCase(Locale.ROOT);
+    }
+
+    //비트맵은 int 범위 id만 담음
+    public static boolean indexable(long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    //userId의 종목을 types로 바꿈 (달라진 종목의 비트맵만 고침)
+    private static void apply(Map<String, ChunkedBitmap> usersByType, Map<Long, String[]> typesByUser, long userId, String[] types) {
+        String[] previous = typesByUser.getOrDefault(userId, NONE);
+        for (String type : previous) {
+            if (!contains(types, type)) removeFrom(usersByType, type, (int) userId);
+        }
+        for (String type : types) {
+            if (!contains(previous, type)) {
+                usersByType.computeIfAbsent(type, t -> new ChunkedBitmap()).add((int) userId);
+            }
+        }
+        if (types.length == 0) {
+            typesByUser.remove(userId);
+        } else {
+            typesByUser.put(userId, types);
+        }
+    }
+
+    private static void removeFrom(Map<String, ChunkedBitmap> usersByType, String type, int userId) {
+        ChunkedBitmap users = usersByType.get(type);
+        if (users == null) return;
+        users.remove(userId);
+        if (users.cardinality() == 0) usersByType.remove(type);
+    }
+
+    private static String[] normalize(Collection<String> types) {
+        if (types == null) return NONE;
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String type : types) {
+            String t = normalizeType(type);
+            if (!t.isEmpty()) normalized.add(t);
+        }
+        return new ArrayList<>(normalized).toArray(NONE);
+    }
+
+    private static boolean contains(String[] types, String type) {
+        for (String t : types) {
+            if (t.equals(type)) return true;
+        }
+        return false;
+    }
+
+    private static boolean allChunksEmpty(ChunkedBitmap[] bitmaps, int wordIndex) {
+        for (ChunkedBitmap bitmap : bitmaps) {
+            if (!bitmap.isChunkEmpty(wordIndex)) return false;
+        }
+        return true;
+    }
+}
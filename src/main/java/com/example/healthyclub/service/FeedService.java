@@ -0,0 +1,226 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.event.RoutineChangedEvent;
+import com.example.healthyclub.repository.RoutineRepository;
+import com.example.healthyclub.util.BoundedTtlMap;
+import com.example.healthyclub.util.RecentIdBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+//친구들의 최근 루틴 피드
+//루틴이 생성(복사 포함)되면 작성자를 친구로 추가한 유저들의 타임라인(최근 루틴 id 버퍼)에 id를 넣어둔다 (fan-out-on-write)
+//피드를 읽을 때는 내 타임라인에서 한 페이지를 잘라서 그 루틴들만 DB에서 읽는다
+//팔로워가 아주 많은 유저는 루틴 하나에 타임라인 수천 개를 건드리지 않도록 자기 최근 루틴 버퍼에만 넣고,
+//읽는 쪽에서 그런 친구들의 버퍼를 합친다 (fan-out-on-read)
+//타임라인은 메모리에만 있고, 없으면(서버 재시작, 밀려남, 친구 변경) 처음 읽을 때 DB에서 다시 만든다
+//다 만들기 전의 타임라인이나, 타임라인(최근 timelineCapacity개)보다 오래된 페이지는 DB에서 바로 읽는다
+@Service
+@Slf4j
+public class FeedService {
+
+    //한 페이지 최대 크기
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final RoutineRepository routineRepository;
+    private final RoutineBodyService routineBodyService;
+    private final FriendGraph friendGraph;
+
+    private final int timelineCapacity;
+    private final int fanOutMaxFollowers;
+
+    //유저 -> 친구들의 최근 루틴 id (용량이 차서 밀려나면 다시 읽을 때 DB에서 만들어짐)
+    private final BoundedTtlMap<Long, Timeline> timelines;
+    //팔로워가 많은 유저 -> 자기 최근 루틴 id
+    private final BoundedTtlMap<Long, Timeline> outboxes;
+
+    public FeedService(RoutineRepository routineRepository,
+                       RoutineBodyService routineBodyService,
+                       FriendGraph friendGraph,
+                       MeterRegistry registry,
+                       @Value("${healthyclub.feed.timeline-capacity:200}") int timelineCapacity,
+                       @Value("${healthyclub.feed.fan-out-max-followers:1000}") int fanOutMaxFollowers,
+                       @Value("${healthyclub.feed.max-timelines:100000}") int maxTimelines) {
+        this.routineRepository = routineRepository;
+        this.routineBodyService = routineBodyService;
+        this.friendGraph = friendGraph;
+        this.timelineCapacity = timelineCapacity;
+        this.fanOutMaxFollowers = fanOutMaxFollowers;
+        this.timelines = new BoundedTtlMap<>(maxTimelines);
+        this.outboxes = new BoundedTtlMap<>(maxTimelines);
+
+        Gauge.builder("feed.timelines", timelines, BoundedTtlMap::size).register(registry);
+        Gauge.builder("feed.outboxes", outboxes, BoundedTtlMap::size).register(registry);
+    }
+
+    //피드 한 페이지 (nextCursor : 다음 페이지를 읽을 때 before로 보낼 값, 마지막 페이지면 null)
+    public static final class Page {
+        private final List<RoutineDTO> routines;
+        private final Long nextCursor;
+
+        private Page(List<RoutineDTO> routines, Long nextCursor) {
+            this.routines = routines;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<RoutineDTO> getRoutines() {
+            return routines;
+        }
+
+        public Long getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    //userId의 친구들의 루틴을 최신 순으로 before(루틴 id) 이전부터 size개 (before가 null이면 처음부터)
+    public Page feed(Long userId, Long before, int size) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long cursor = (before != null) ? before : Long.MAX_VALUE;
+
+        //내 타임라인 + 팔로워가 많은 친구들의 최근 루틴을 id 역순으로 합침
+        List<long[]> sources = new ArrayList<>();
+        sources.add(read(timeline(userId), cursor, pageSize,
+                () -> routineRepository.findIdsOfFriendsBefore(userId, cursor, PageRequest.of(0, pageSize))));
+        for (long friendId : friendGraph.friendsOf(userId)) {
+            if (isHighDegree(friendId)) {
+                sources.add(read(outbox(friendId), cursor, pageSize,
+                        () -> routineRepository.findIdsBefore(friendId, cursor, PageRequest.of(0, pageSize))));
+            }
+        }
+        List<Long> ids = mergeDescending(sources, pageSize);
+        if (ids.isEmpty()) {
+            return new Page(List.of(), null);
+        }
+        //페이지가 꽉 찼을 때만 다음 페이지가 있을 수 있음 (삭제된 루틴이 빠져도 커서는 합친 id 기준)
+        Long nextCursor = (ids.size() == pageSize) ? ids.get(ids.size() - 1) : null;
+
+        //그 사이 삭제된 루틴은 빠짐
+        Map<Long, RoutineDTO> found = routineRepository.findDTOsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(RoutineDTO::getId, Function.identity()));
+        List<RoutineDTO> routines = ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new Page(routineBodyService.intern(routines), nextCursor);
+    }
+
+    //친구 목록이 바뀌면 타임라인을 버리고 다음에 읽을 때 다시 만든다
+    public void invalidate(Long userId) {
+        timelines.remove(userId);
+    }
+
+    //루틴 생성이 커밋된 뒤에 작성자의 팔로워 타임라인에 넣음
+    @TransactionalEventListener
+    public void onRoutineChanged(RoutineChangedEvent event) {
+        if (!event.isCreated()) return;
+        long authorId = event.getAfter().getUserid();
+        long routineId = event.getAfter().getId();
+
+        if (isHighDegree(authorId)) {
+            Timeline outbox = outboxes.get(authorId);
+            if (outbox != null) outbox.ids.add(routineId);
+            return;
+        }
+        for (long followerId : friendGraph.followersOf(authorId)) {
+            //타임라인이 없는 유저는 읽을 때 DB에서 만들므로 건너뜀 (만드는 중인 타임라인에는 넣음)
+            Timeline timeline = timelines.get(followerId);
+            if (timeline != null) timeline.ids.add(routineId);
+        }
+    }
+
+    private boolean isHighDegree(long userId) {
+        return friendGraph.followerCount(userId) > fanOutMaxFollowers;
+    }
+
+    private Timeline timeline(Long userId) {
+        return buffer(timelines, userId,
+                id -> routineRepository.findIdsOfFriendsBefore(id, Long.MAX_VALUE, PageRequest.of(0, timelineCapacity)));
+    }
+
+    private Timeline outbox(Long userId) {
+        return buffer(outboxes, userId,
+                id -> routineRepository.findIdsBefore(id, Long.MAX_VALUE, PageRequest.of(0, timelineCapacity)));
+    }
+
+    //버퍼가 없으면 빈 버퍼를 먼저 등록하고 DB에서 채운 뒤 ready로 표시한다
+    //(채우는 동안 커밋된 루틴도 이벤트로 같은 버퍼에 들어가므로 빠지지 않고, 그동안 다른 요청은 DB에서 읽음)
+    private Timeline buffer(BoundedTtlMap<Long, Timeline> buffers, Long userId, Function<Long, List<Long>> loader) {
+        Timeline timeline = buffers.get(userId);
+        if (timeline != null) return timeline;
+
+        Timeline created = new Timeline(timelineCapacity);
+        timeline = buffers.putIfAbsent(userId, created);
+        if (timeline != null) return timeline;
+
+        try {
+            for (Long routineId : loader.apply(userId)) {
+                created.ids.add(routineId);
+            }
+        } catch (RuntimeException e) {
+            buffers.remove(userId, created);
+            throw e;
+        }
+        created.ready = true;
+        return created;
+    }
+
+    //버퍼에서 cursor 이전 limit개를 읽는다
+    //아직 채우는 중이거나, 버퍼가 가득 차서 그보다 오래된 id가 밀려났을 수 있는데 모자라면 DB에서 읽는다
+    private static long[] read(Timeline timeline, long cursor, int limit, Supplier<List<Long>> fromDb) {
+        if (timeline.ready) {
+            long[] ids = timeline.ids.before(cursor, limit);
+            if (ids.length == limit || !timeline.ids.isFull()) {
+                return ids;
+            }
+        }
+        return fromDb.get().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    //id 역순 배열들을 합쳐서 중복 없이 limit개
+    private static List<Long> mergeDescending(List<long[]> sources, int limit) {
+        int[] positions = new int[sources.size()];
+        List<Long> merged = new ArrayList<>(limit);
+        long last = Long.MAX_VALUE;
+        while (merged.size() < limit) {
+            int best = -1;
+            for (int i = 0; i < sources.size(); i++) {
+                long[] source = sources.get(i);
+                if (positions[i] < source.length && (best < 0 || source[positions[i]] > sources.get(best)[positions[best]])) {
+                    best = i;
+                }
+            }
+            if (best < 0) break;
+            long id = sources.get(best)[positions[best]++];
+            if (id != last) {
+                merged.add(id);
+                last = id;
+            }
+        }
+        return merged;
+    }
+
+    //최근 루틴 id 버퍼 + DB에서 다 채웠는지
+    private static final class Timeline {
+        private final RecentIdBuffer ids;
+        private volatile boolean ready;
+
+        private Timeline(int capacity) {
+            this.ids = new RecentIdBuffer(capacity);
+        }
+    }
+}
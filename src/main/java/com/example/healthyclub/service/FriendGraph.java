@@ -0,0 +1,143 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.util.LongHashSet;
+import com.example.healthyclub.util.StripedVersions;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//친구 관계(friend 테이블)를 메모리에 들고 있는 인접 리스트
+//유저마다 "내가 추가한 친구"와 "나를 친구로 추가한 유저"를 long 해시 셋으로 들고 있어서 확인 / 추가 / 삭제가 O(1)
+//DB가 원본이고 FriendService가 DB에 반영한 뒤에 여기도 바꾼다 (셋마다 따로 잠금)
+//"내가 추가한 친구"는 교집합 계산에 쓰도록 정렬된 long[]도 만들어두고 바뀔 때만 다시 만든다
+@Component
+public class FriendGraph {
+
+    private static final long[] EMPTY = new long[0];
+
+    //userId -> userId가 추가한 친구
+    private final Map<Long, LongHashSet> following = new ConcurrentHashMap<>();
+    //userId -> userId를 친구로 추가한 유저
+    private final Map<Long, LongHashSet> followers = new ConcurrentHashMap<>();
+    //userId -> userId가 추가한 친구 (오름차순, 바뀌면 지우고 다음 조회 때 다시 만듦). 셋의 잠금 안에서만 고친다
+    private final Map<Long, long[]> sortedFollowing = new ConcurrentHashMap<>();
+    //userId의 친구 목록이 바뀔 때마다 올라가는 버전 (친구의 친구 캐시 검증용)
+    private final StripedVersions versions = new StripedVersions(4096, 0);
+
+    public boolean isFriend(long userId, long friendId) {
+        LongHashSet friends = following.get(userId);
+        if (friends == null) return false;
+        synchronized (friends) {
+            return friends.contains(friendId);
+        }
+    }
+
+    public void add(long userId, long friendId) {
+        addTo(following, userId, friendId);
+        addTo(followers, friendId, userId);
+    }
+
+    public void remove(long userId, long friendId) {
+        removeFrom(following, userId, friendId);
+        removeFrom(followers, friendId, userId);
+    }
+
+    //userId의 친구 목록 버전 (친구 목록이 바뀌면 올라감)
+    public long version(long userId) {
+        return versions.version(userId);
+    }
+
+    //탈퇴한 유저가 들어간 관계를 모두 지움
+    public void removeUser(long userId) {
+        LongHashSet friends = following.remove(userId);
+        if (friends != null) {
+            synchronized (friends) {
+                sortedFollowing.remove(userId);
+                versions.bump(userId, 0);
+            }
+            for (long friendId : snapshot(friends)) {
+                removeFrom(followers, friendId, userId);
+            }
+        }
+        LongHashSet fans = followers.remove(userId);
+        if (fans != null) {
+            for (long followerId : snapshot(fans)) {
+                removeFrom(following, followerId, userId);
+            }
+        }
+    }
+
+    //userId가 추가한 친구 (오름차순). 여러 곳에서 같이 쓰는 배열이므로 고치면 안 됨
+    public long[] friendsOf(long userId) {
+        LongHashSet friends = following.get(userId);
+        if (friends == null) return EMPTY;
+        synchronized (friends) {
+            long[] sorted = sortedFollowing.get(userId);
+            if (sorted == null) {
+                sorted = friends.toSortedArray();
+                sortedFollowing.put(userId, sorted);
+            }
+            return sorted;
+        }
+    }
+
+    //친구 수 (userId가 추가한 친구)
+    public int friendCount(long userId) {
+        LongHashSet friends = following.get(userId);
+        if (friends == null) return 0;
+        synchronized (friends) {
+            return friends.size();
+        }
+    }
+
+    //userId를 친구로 추가한 유저 (오름차순)
+    public long[] followersOf(long userId) {
+        return snapshot(followers.get(userId));
+    }
+
+    public int followerCount(long userId) {
+        LongHashSet fans = followers.get(userId);
+        if (fans == null) return 0;
+        synchronized (fans) {
+            return fans.size();
+        }
+    }
+
+    //전체를 다시 채우기 전에 비움 (서버 시작 시)
+    void clear() {
+        following.clear();
+        followers.clear();
+        sortedFollowing.clear();
+    }
+
+    private void addTo(Map<Long, LongHashSet> index, long key, long value) {
+        LongHashSet set = index.computeIfAbsent(key, k -> new LongHashSet());
+        synchronized (set) {
+            if (set.add(value)) changed(index, key);
+        }
+    }
+
+    private void removeFrom(Map<Long, LongHashSet> index, long key, long value) {
+        LongHashSet set = index.get(key);
+        if (set == null) return;
+        synchronized (set) {
+            if (set.remove(value)) changed(index, key);
+        }
+    }
+
+    //"내가 추가한 친구"가 바뀌면 정렬된 배열을 버리고 버전을 올림
+    private void changed(Map<Long, LongHashSet> index, long key) {
+        if (index == following) {
+            sortedFollowing.remove(key);
+            versions.bump(key, 0);
+        }
+    }
+
+    private static long[] snapshot(LongHashSet set) {
+        if (set == null) return EMPTY;
+        synchronized (set) {
+            return set.toSortedArray();
+        }
+    }
+}
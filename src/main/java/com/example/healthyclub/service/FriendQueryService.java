@@ -0,0 +1,236 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.util.BoundedTtlMap;
+import com.example.healthyclub.util.SortedLongArrays;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//친구 관계 조회 - 함께 아는 친구(두 유저의 친구 목록 교집합)와 친구의 친구(2촌)
+//FriendGraph의 정렬된 친구 배열끼리 교집합 / 병합만 하므로 DB에 가지 않는다
+//친구가 많은 유저의 2촌은 계산 비용이 크므로 개수 제한이 있는 캐시에 두고,
+//계산할 때의 친구 배열과 본인 / 친구 한 명 한 명의 친구 목록 버전을 같이 저장해두고, 모두 그대로일 때만 쓴다
+//(버전 합으로 비교하면 친구를 바꿨을 때 빠진 친구와 들어온 친구의 버전 차이만큼 합이 맞아떨어질 수 있음)
+//조회 시간은 친구 수 구간별로 기록 (friend.query.latency, query / degree 태그)
+@Service
+@Slf4j
+public class FriendQueryService {
+
+    //2촌을 셀 때 최대로 따라가는 관계 수 (친구가 아주 많아도 응답 시간이 늘지 않도록, 넘으면 앞쪽 친구들까지만)
+    static final int MAX_TWO_HOP_EDGES = 200_000;
+    //지연 시간을 나눠 기록하는 친구 수 구간
+    private static final int[] DEGREE_BOUNDS = {10, 100, 1000};
+    private static final String[] DEGREE_TAGS = {"<10", "<100", "<1000", ">=1000"};
+
+    private final FriendGraph friendGraph;
+
+    private final int cacheMinDegree;
+    //userId -> 2촌 (친구가 cacheMinDegree명 이상인 유저만)
+    private final BoundedTtlMap<Long, CachedTwoHop> twoHopCache;
+
+    private final Timer[] mutualTimers;
+    private final Timer[] twoHopTimers;
+
+    public FriendQueryService(FriendGraph friendGraph,
+                              MeterRegistry registry,
+                              @Value("${healthyclub.friend.two-hop-cache-min-degree:100}") int cacheMinDegree,
+                              @Value("${healthyclub.friend.two-hop-cache-size:10000}") int maxCacheEntries) {
+        this.friendGraph = friendGraph;
+        this.cacheMinDegree = cacheMinDegree;
+        this.twoHopCache = new BoundedTtlMap<>(maxCacheEntries);
+        this.mutualTimers = timers(registry, "mutual");
+        this.twoHopTimers = timers(registry, "two_hop");
+        Gauge.builder("friend.query.two_hop.cache", twoHopCache, BoundedTtlMap::size).register(registry);
+    }
+
+    //2촌 - 내 친구들이 추가한 친구 중 나와 내 친구를 뺀 유저
+    //ids[i]를 친구로 추가한 내 친구 수가 counts[i]. 그 수가 많은 순, 같으면 id 순
+    public static final class TwoHop {
+        private static final TwoHop EMPTY = new TwoHop(new long[0], new int[0]);
+
+        private final long[] ids;
+        private final int[] counts;
+
+        private TwoHop(long[] ids, int[] counts) {
+            this.ids = ids;
+            this.counts = counts;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public long id(int i) {
+            return ids[i];
+        }
+
+        public int count(int i) {
+            return counts[i];
+        }
+    }
+
+    //userId와 otherId가 둘 다 친구로 추가한 유저 (오름차순)
+    public long[] mutualFriends(long userId, long otherId) {
+        long started = System.nanoTime();
+        long[] mine = friendGraph.friendsOf(userId);
+        long[] mutual = SortedLongArrays.intersect(mine, friendGraph.friendsOf(otherId));
+        timer(mutualTimers, mine.length).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return mutual;
+    }
+
+    //others 각각과 함께 아는 친구 수 (요청한 순서대로)
+    public Map<Long, Integer> mutualCounts(long userId, Collection<Long> others) {
+        long started = System.nanoTime();
+        long[] mine = friendGraph.friendsOf(userId);
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        for (Long otherId : others) {
+            if (otherId == null || counts.containsKey(otherId)) continue;
+            counts.put(otherId, SortedLongArrays.intersectionSize(mine, friendGraph.friendsOf(otherId)));
+        }
+        timer(mutualTimers, mine.length).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return counts;
+    }
+
+    public TwoHop twoHop(long userId) {
+        long started = System.nanoTime();
+        long[] friends = friendGraph.friendsOf(userId);
+        TwoHop result;
+        if (friends.length < cacheMinDegree) {
+            result = computeTwoHop(userId, friends);
+        } else {
+            result = cachedTwoHop(userId, friends);
+        }
+        timer(twoHopTimers, friends.length).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private TwoHop cachedTwoHop(long userId, long[] friends) {
+        //버전은 계산 전에 읽는다 (계산하는 동안 바뀌면 다음 조회 때 버전이 달라서 다시 계산)
+        long version = friendGraph.version(userId);
+        CachedTwoHop cached = twoHopCache.get(userId);
+        if (cached != null && cached.isValid(friendGraph, version, friends)) {
+            return cached.twoHop;
+        }
+        long[] friendVersions = new long[friends.length];
+        for (int i = 0; i < friends.length; i++) {
+            friendVersions[i] = friendGraph.version(friends[i]);
+        }
+        TwoHop computed = computeTwoHop(userId, friends);
+        twoHopCache.put(userId, new CachedTwoHop(computed, version, friends, friendVersions));
+        return computed;
+    }
+
+    //친구들의 친구 배열을 이어붙여 정렬한 뒤 같은 id 개수를 셈 (해시 맵 없이 long[]만 사용)
+    private TwoHop computeTwoHop(long userId, long[] friends) {
+        if (friends.length == 0) return TwoHop.EMPTY;
+
+        long[][] lists = new long[friends.length][];
+        int total = 0;
+        int used = 0;
+        while (used < friends.length && total < MAX_TWO_HOP_EDGES) {
+            lists[used] = friendGraph.friendsOf(friends[used]);
+            total += lists[used].length;
+            used++;
+        }
+        long[] all = new long[total];
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            System.arraycopy(lists[i], 0, all, n, lists[i].length);
+            n += lists[i].length;
+        }
+        Arrays.sort(all);
+
+        //같은 id끼리 묶어서 개수를 셈 (나 자신과 이미 친구인 유저는 제외, 친구 배열도 정렬돼 있으므로 같이 훑음)
+        long[] ids = new long[total];
+        int[] counts = new int[total];
+        int distinct = 0;
+        int maxCount = 0;
+        int f = 0;
+        for (int i = 0; i < total; ) {
+            long id = all[i];
+            int j = i;
+            while (j < total && all[j] == id) j++;
+            while (f < friends.length && friends[f] < id) f++;
+            boolean friend = f < friends.length && friends[f] == id;
+            if (id != userId && !friend) {
+                ids[distinct] = id;
+                counts[distinct] = j - i;
+                maxCount = Math.max(maxCount, j - i);
+                distinct++;
+            }
+            i = j;
+        }
+
+        //개수 내림차순으로 계수 정렬 (개수가 같으면 이미 id 순)
+        int[] starts = new int[maxCount + 2];
+        for (int i = 0; i < distinct; i++) {
+            starts[maxCount - counts[i] + 1]++;
+        }
+        for (int c = 1; c < starts.length; c++) {
+            starts[c] += starts[c - 1];
+        }
+        long[] sortedIds = new long[distinct];
+        int[] sortedCounts = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            int pos = starts[maxCount - counts[i]]++;
+            sortedIds[pos] = ids[i];
+            sortedCounts[pos] = counts[i];
+        }
+        return new TwoHop(sortedIds, sortedCounts);
+    }
+
+    private static Timer[] timers(MeterRegistry registry, String query) {
+        Timer[] timers = new Timer[DEGREE_TAGS.length];
+        for (int i = 0; i < DEGREE_TAGS.length; i++) {
+            timers[i] = Timer.builder("friend.query.latency")
+                    .tag("query", query)
+                    .tag("degree", DEGREE_TAGS[i])
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private static Timer timer(Timer[] timers, int degree) {
+        int i = 0;
+        while (i < DEGREE_BOUNDS.length && degree >= DEGREE_BOUNDS[i]) i++;
+        return timers[i];
+    }
+
+    private static final class CachedTwoHop {
+        private final TwoHop twoHop;
+        //본인의 친구 목록 버전
+        private final long version;
+        //계산할 때의 친구 (FriendGraph가 공유하는 정렬된 배열이라 고치지 않음)와 친구마다의 친구 목록 버전
+        private final long[] friends;
+        private final long[] friendVersions;
+
+        private CachedTwoHop(TwoHop twoHop, long version, long[] friends, long[] friendVersions) {
+            this.twoHop = twoHop;
+            this.version = version;
+            this.friends = friends;
+            this.friendVersions = friendVersions;
+        }
+
+        //본인의 친구 목록과 친구들의 친구 목록이 계산할 때와 모두 같은지
+        private boolean isValid(FriendGraph graph, long version, long[] friends) {
+            if (this.version != version || !Arrays.equals(this.friends, friends)) {
+                return false;
+            }
+            for (int i = 0; i < friends.length; i++) {
+                if (graph.version(friends[i]) != friendVersions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.repository.FriendRepository;
+import com.example.healthyclub.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+//친구 추가 / 삭제 / 조회
+//관계 확인은 메모리(FriendGraph)에서 하고, DB에는 추가할 때 insert 한 번, 삭제할 때 delete 한 번만 보낸다
+//같은 (유저, 친구) 쌍의 추가 / 삭제는 쌍마다 잠가서 확인 -> DB 반영 -> 그래프 반영을 한 번에 하나씩 처리한다
+//(동시에 추가와 삭제가 들어와도 DB와 그래프가 어긋나지 않고, 동시에 같은 친구를 추가해도 insert는 한 번)
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FriendService implements SmartInitializingSingleton {
+
+    //friend 테이블이 생기기 전에 쓰던 UserEntity.friends(@ElementCollection) 테이블
+    private static final String LEGACY_TABLE = "friend_table";
+    //쌍마다 잠글 때 나누는 잠금 수 (2의 거듭제곱)
+    private static final int LOCK_STRIPES = 256;
+
+    private final FriendRepository friendRepository;
+    private final UserRepository userRepository;
+    private final FriendGraph friendGraph;
+    private final FeedService feedService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Object[] locks = newLocks();
+
+    //userId가 friendId를 친구로 추가하고 userId의 친구 목록을 반환
+    public long[] add(Long userId, Long friendId) {
+        if (userId.equals(friendId)) {
+            throw new IllegalArgumentException("자기 자신은 친구로 추가할 수 없습니다.");
+        }
+        synchronized (lockOf(userId, friendId)) {
+            //이미 친구면 DB에 가지 않음
+            if (!friendGraph.isFriend(userId, friendId)) {
+                try {
+                    friendRepository.insert(userId, friendId);
+                } catch (DataIntegrityViolationException e) {
+                    //없는 유저(FK 위반)가 아니면 다른 서버에서 같은 친구를 추가한 경우(기본 키 중복)이므로 성공으로 본다
+                    if (!userRepository.existsById(friendId)) {
+                        throw new IllegalArgumentException("추가하려는 친구가 존재하지 않습니다.");
+                    }
+                }
+                friendGraph.add(userId, friendId);
+                feedService.invalidate(userId);
+            }
+        }
+        return friendGraph.friendsOf(userId);
+    }
+
+    //userId의 친구 목록에서 friendId를 지우고 userId의 친구 목록을 반환
+    public long[] remove(Long userId, Long friendId) {
+        synchronized (lockOf(userId, friendId)) {
+            if (!friendGraph.isFriend(userId, friendId)) {
+                throw new IllegalArgumentException("친구 목록에 없는 유저입니다.");
+            }
+            friendRepository.deleteEdge(userId, friendId);
+            friendGraph.remove(userId, friendId);
+            feedService.invalidate(userId);
+        }
+        return friendGraph.friendsOf(userId);
+    }
+
+    public long[] friendsOf(Long userId) {
+        return friendGraph.friendsOf(userId);
+    }
+
+    //웹 서버가 요청을 받기 전에 예전 테이블을 옮기고 전체 관계를 메모리에 올린다
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateLegacyTable();
+
+        long started = System.currentTimeMillis();
+        friendGraph.clear();
+        int[] edges = {0};
+        jdbcTemplate.query("SELECT user_id, friend_id FROM friend", rs -> {
+            friendGraph.add(rs.getLong("user_id"), rs.getLong("friend_id"));
+            edges[0]++;
+        });
+        log.info("friend graph loaded - edges : {}, {} ms", edges[0], System.currentTimeMillis() - started);
+    }
+
+    private Object lockOf(long userId, long friendId) {
+        int h = Long.hashCode(userId * 31 + friendId);
+        return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    //예전 friend_table(문자열 id 목록)을 friend 테이블로 옮기고 다시 옮기지 않도록 이름을 바꿔둔다
+    //숫자가 아니거나 없는 유저, 자기 자신, 중복은 버린다
+    private void migrateLegacyTable() {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, LEGACY_TABLE);
+        if (exists == null || exists == 0) return;
+
+        int moved = jdbcTemplate.update(
+                "INSERT IGNORE INTO friend (user_id, friend_id, created_at) " +
+                        "SELECT DISTINCT ft.user_entity_id, CAST(ft.friends AS UNSIGNED), NOW() FROM " + LEGACY_TABLE + " ft " +
+                        "JOIN user f ON f.id = CAST(ft.friends AS UNSIGNED) " +
+                        "WHERE ft.friends REGEXP '^[0-9]+$' AND ft.user_entity_id <> CAST(ft.friends AS UNSIGNED)");
+        jdbcTemplate.execute("RENAME TABLE " + LEGACY_TABLE + " TO " + LEGACY_TABLE + "_legacy");
+        log.info("friend migration - {} rows moved from {}", moved, LEGACY_TABLE);
+    }
+}
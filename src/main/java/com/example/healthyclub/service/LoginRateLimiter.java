@@ -0,0 +1,64 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.error.TooManyRequestsException;
+import com.example.healthyclub.util.StripedTokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+//로그인 시도 횟수 제한 (로그인 아이디별 + 클라이언트 IP별)
+//DB 조회와 BCrypt 비교보다 먼저 호출해서, 스크립트로 찔러대는 요청이 CPU를 다 쓰지 못하게 한다
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    private final StripedTokenBucketLimiter byLoginId;
+    private final StripedTokenBucketLimiter byClientIp;
+
+    private final Counter rejectedByLoginId;
+    private final Counter rejectedByClientIp;
+
+    public LoginRateLimiter(MeterRegistry registry,
+                            @Value("${healthyclub.auth.login-limit.account.capacity:5}") int accountCapacity,
+                            @Value("${healthyclub.auth.login-limit.account.per-minute:5}") double accountPerMinute,
+                            @Value("${healthyclub.auth.login-limit.ip.capacity:50}") int ipCapacity,
+                            @Value("${healthyclub.auth.login-limit.ip.per-minute:60}") double ipPerMinute,
+                            @Value("${healthyclub.auth.login-limit.max-keys:100000}") int maxKeys) {
+        this.byLoginId = new StripedTokenBucketLimiter(accountCapacity, accountPerMinute / 60, maxKeys);
+        this.byClientIp = new StripedTokenBucketLimiter(ipCapacity, ipPerMinute / 60, maxKeys);
+
+        this.rejectedByLoginId = Counter.builder("auth.login.throttled").tag("key", "login-id").register(registry);
+        this.rejectedByClientIp = Counter.builder("auth.login.throttled").tag("key", "client-ip").register(registry);
+        Gauge.builder("auth.login.throttle.keys", byLoginId, StripedTokenBucketLimiter::size).tag("key", "login-id").register(registry);
+        Gauge.builder("auth.login.throttle.keys", byClientIp, StripedTokenBucketLimiter::size).tag("key", "client-ip").register(registry);
+    }
+
+    //로그인 시도 1회를 기록. 한도를 넘으면 TooManyRequestsException
+    public void check(String loginId, String clientIp) {
+        if (clientIp != null) {
+            long wait = byClientIp.tryAcquire(clientIp);
+            if (wait > 0) {
+                rejectedByClientIp.increment();
+                throw tooMany(wait);
+            }
+        }
+        if (loginId != null) {
+            long wait = byLoginId.tryAcquire(loginId);
+            if (wait > 0) {
+                rejectedByLoginId.increment();
+                log.debug("login throttled - loginId : {}", loginId);
+                throw tooMany(wait);
+            }
+        }
+    }
+
+    private TooManyRequestsException tooMany(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return new TooManyRequestsException("로그인 시도가 너무 많습니다. 잠시 후 다시 시도해주세요.", seconds);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.error.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//BCrypt 해싱(encode / matches)만 전담하는 스레드풀
+//로그인이 몰려도 해싱은 코어 수만큼만 동시에 돌고, 대기열이 차면 바로 ServiceBusyException(503)으로 거절한다
+//그래서 톰캣 워커 스레드가 전부 해싱에 묶이지 않고 /routine 같은 다른 요청은 평소 속도를 유지한다
+@Component
+@Slf4j
+public class PasswordHashExecutor {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public PasswordHashExecutor(PasswordEncoder encoder,
+                                MeterRegistry registry,
+                                @Value("${healthyclub.auth.hash.threads:0}") int threads,
+                                @Value("${healthyclub.auth.hash.queue-capacity:0}") int queueCapacity,
+                                @Value("${healthyclub.auth.hash.timeout-ms:5000}") long timeoutMillis,
+                                @Value("${healthyclub.auth.hash.retry-after-seconds:1}") long retryAfterSeconds) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int poolSize = threads > 0 ? threads : cores;
+        int capacity = queueCapacity > 0 ? queueCapacity : poolSize * 4;
+
+        this.encoder = encoder;
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("auth.hash.wait")
+                .description("해싱 작업이 대기열에서 기다린 시간")
+                .register(registry);
+        this.hashTimer = Timer.builder("auth.hash.duration")
+                .description("해싱 작업 자체에 걸린 시간")
+                .register(registry);
+        this.rejected = Counter.builder("auth.hash.rejected")
+                .description("대기열이 가득 차서 거절된 해싱 요청 수")
+                .register(registry);
+        Gauge.builder("auth.hash.queue.depth", executor, e -> e.getQueue().size())
+                .register(registry);
+        Gauge.builder("auth.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+
+        log.info("password hash executor - threads : {}, queue : {}", poolSize, capacity);
+    }
+
+    //평문 비밀번호를 해싱
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    //평문 비밀번호와 저장된 해시가 일치하는지 확인
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    //저장된 해시를 현재 설정(strength)으로 다시 만들어야 하는지
+    public boolean needsRehash(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("요청이 많아 잠시 후 다시 시도해주세요.", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
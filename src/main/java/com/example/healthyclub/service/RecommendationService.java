@@ -0,0 +1,198 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.FriendRecommendationDTO;
+import com.example.healthyclub.dto.UserSummaryDTO;
+import com.example.healthyclub.util.ChunkedBitmap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+//친구 추천 - 운동 종목이 겹치거나 내 친구들이 친구로 추가한 유저 중 아직 내 친구가 아닌 유저
+//점수 = 겹치는 종목 수 * TYPE_WEIGHT + 함께 아는 친구 수. 점수가 같으면 먼저 가입한(id가 작은) 유저
+//종목은 ExerciseTypeIndex의 비트맵, 친구의 친구는 FriendQueryService의 2촌으로 모두 메모리에서 계산하고 DB는 결과 회원 정보만 읽는다
+@Service
+@Slf4j
+public class RecommendationService implements SmartInitializingSingleton {
+
+    //한 번에 받을 수 있는 최대 추천 수
+    public static final int MAX_SIZE = 100;
+    //겹치는 종목 하나의 점수 (함께 아는 친구 한 명은 1점)
+    private static final int TYPE_WEIGHT = 2;
+
+    private final ExerciseTypeIndex exerciseTypeIndex;
+    private final FriendGraph friendGraph;
+    private final FriendQueryService friendQueryService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Timer recommendTimer;
+
+    public RecommendationService(ExerciseTypeIndex exerciseTypeIndex,
+                                 FriendGraph friendGraph,
+                                 FriendQueryService friendQueryService,
+                                 UserService userService,
+                                 JdbcTemplate jdbcTemplate,
+                                 MeterRegistry registry) {
+        this.exerciseTypeIndex = exerciseTypeIndex;
+        this.friendGraph = friendGraph;
+        this.friendQueryService = friendQueryService;
+        this.userService = userService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.recommendTimer = Timer.builder("friend.recommend.latency").register(registry);
+        Gauge.builder("friend.recommend.exercise.types", exerciseTypeIndex, ExerciseTypeIndex::typeCount).register(registry);
+    }
+
+    //userId에게 추천할 유저를 점수 순으로 size개
+    public List<FriendRecommendationDTO> recommend(Long userId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SIZE));
+
+        long started = System.nanoTime();
+        List<Candidate> ranked = rank(userId, limit);
+        recommendTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+
+        //탈퇴 직후라 회원 정보가 없는 유저는 빠짐
+        Map<Long, UserSummaryDTO> summaries = userService.summaries(
+                        ranked.stream().map(c -> c.userId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(UserSummaryDTO::getId, s -> s));
+        List<FriendRecommendationDTO> result = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            UserSummaryDTO summary = summaries.get(candidate.userId);
+            if (summary == null) continue;
+            result.add(new FriendRecommendationDTO(summary.getId(), summary.getNickname(), summary.getExerciseType(),
+                    candidate.sharedTypes, candidate.mutualFriends));
+        }
+        return result;
+    }
+
+    //웹 서버가 요청을 받기 전에 전체 회원의 운동 종목을 메모리에 올린다
+    @Override
+    public void afterSingletonsInstantiated() {
+        reloadExerciseTypes();
+    }
+
+    //전체 회원의 운동 종목을 DB에서 다시 읽어서 색인을 바꿔 끼움
+    //이 서버를 거치지 않고 DB에 들어간 회원(--import-users 로 따로 띄운 프로세스의 일괄 등록 등)은 이때 추천 대상이 된다
+    //읽는 동안에도 추천 / 가입 / 수정은 기존 색인으로 그대로 처리됨
+    @Scheduled(fixedDelayString = "${healthyclub.friend.exercise-index.reload-interval-ms:600000}",
+            initialDelayString = "${healthyclub.friend.exercise-index.reload-interval-ms:600000}")
+    public synchronized void reloadExerciseTypes() {
+        long started = System.currentTimeMillis();
+        ExerciseTypeIndex.Reload reload = exerciseTypeIndex.reload();
+        int[] rows = {0};
+        try {
+            jdbcTemplate.query("SELECT user_entity_id, exercise_type FROM exercise_type", rs -> {
+                reload.add(rs.getLong("user_entity_id"), rs.getString("exercise_type"));
+                rows[0]++;
+            });
+        } catch (RuntimeException e) {
+            reload.discard();
+            throw e;
+        }
+        reload.swap();
+        log.info("exercise type index loaded - rows : {}, types : {}, {} ms",
+                rows[0], exerciseTypeIndex.typeCount(), System.currentTimeMillis() - started);
+    }
+
+    private List<Candidate> rank(long userId, int limit) {
+        long[] friends = friendGraph.friendsOf(userId);
+
+        //나 자신과 이미 친구인 유저는 제외
+        ChunkedBitmap exclude = new ChunkedBitmap();
+        if (ExerciseTypeIndex.indexable(userId)) exclude.add((int) userId);
+        for (long friendId : friends) {
+            if (ExerciseTypeIndex.indexable(friendId)) exclude.add((int) friendId);
+        }
+
+        TopCandidates top = new TopCandidates(limit);
+        //친구의 친구는 여기서 종목 점수까지 더해서 넣고, 종목 비트맵을 훑을 때는 건너뜀
+        FriendQueryService.TwoHop twoHop = friendQueryService.twoHop(userId);
+        for (int i = 0; i < twoHop.size(); i++) {
+            long candidate = twoHop.id(i);
+            top.offer(candidate, exerciseTypeIndex.sharedTypes(userId, candidate), twoHop.count(i));
+            if (ExerciseTypeIndex.indexable(candidate)) exclude.add((int) candidate);
+        }
+
+        //종목만 겹치는 유저 (남은 자리를 종목 점수로 이길 수 없으면 훑지 않음)
+        int maxTypeScore = exerciseTypeIndex.typesOf(userId).size() * TYPE_WEIGHT;
+        if (!top.isFull() || top.minScore() <= maxTypeScore) {
+            exerciseTypeIndex.forEachOverlap(userId, exclude, (candidate, shared) -> top.offer(candidate, shared, 0));
+        }
+        return top.sorted();
+    }
+
+    private static int score(int sharedTypes, int mutualFriends) {
+        return sharedTypes * TYPE_WEIGHT + mutualFriends;
+    }
+
+    private static final class Candidate {
+        private final long userId;
+        private final int sharedTypes;
+        private final int mutualFriends;
+        private final int score;
+
+        private Candidate(long userId, int sharedTypes, int mutualFriends) {
+            this.userId = userId;
+            this.sharedTypes = sharedTypes;
+            this.mutualFriends = mutualFriends;
+            this.score = score(sharedTypes, mutualFriends);
+        }
+
+        //점수가 높을수록, 같으면 id가 작을수록 앞
+        private int compareTo(Candidate other) {
+            if (score != other.score) return Integer.compare(other.score, score);
+            return Long.compare(userId, other.userId);
+        }
+    }
+
+    //점수 상위 limit개만 들고 있는 힙 (가장 낮은 후보가 맨 위)
+    private static final class TopCandidates {
+        private final int limit;
+        private final PriorityQueue<Candidate> heap;
+
+        private TopCandidates(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, (a, b) -> b.compareTo(a));
+        }
+
+        private void offer(long userId, int sharedTypes, int mutualFriends) {
+            if (isFull()) {
+                //힙의 최하위보다 못하면 객체를 만들지 않음
+                Candidate lowest = heap.peek();
+                int score = score(sharedTypes, mutualFriends);
+                if (score < lowest.score || (score == lowest.score && userId > lowest.userId)) return;
+            }
+            heap.offer(new Candidate(userId, sharedTypes, mutualFriends));
+            if (heap.size() > limit) heap.poll();
+        }
+
+        private boolean isFull() {
+            return heap.size() >= limit;
+        }
+
+        private int minScore() {
+            return heap.peek().score;
+        }
+
+        private List<Candidate> sorted() {
+            List<Candidate> sorted = new ArrayList<>(heap);
+            sorted.sort(Candidate::compareTo);
+            return sorted;
+        }
+    }
+}
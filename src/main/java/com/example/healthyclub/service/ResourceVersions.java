@@ -0,0 +1,69 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.util.StripedVersions;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.LongConsumer;
+
+//조건부 GET(If-None-Match / If-Modified-Since)에 쓰는 유저별 루틴 / 회원 정보 버전
+//버전은 메모리에만 있으므로 DB를 보지 않고 304를 응답할 수 있다
+//서버가 다시 시작되면 버전이 처음부터 다시 시작하므로 ETag에 시작 시각을 붙여서 이전 ETag와 겹치지 않게 한다
+//같은 URL이 Accept에 따라 JSON / CBOR / Smile로 나가므로 ETag 끝에 응답 형식(format)도 붙인다
+@Component
+public class ResourceVersions {
+
+    private static final int STRIPES = 4096;
+
+    private final String epoch;
+    private final StripedVersions routines;
+    private final StripedVersions profiles;
+
+    public ResourceVersions() {
+        long startedAt = System.currentTimeMillis();
+        this.epoch = Long.toString(startedAt, 36);
+        this.routines = new StripedVersions(STRIPES, startedAt);
+        this.profiles = new StripedVersions(STRIPES, startedAt);
+    }
+
+    //유저의 루틴이 바뀌었을 때 (RoutineService의 모든 쓰기)
+    public void routinesChanged(Long userId) {
+        changed(userId, id -> routines.bump(id, System.currentTimeMillis()));
+    }
+
+    //유저의 회원 정보가 바뀌었을 때
+    public void profileChanged(Long userId) {
+        changed(userId, id -> profiles.bump(id, System.currentTimeMillis()));
+    }
+
+    public String routinesETag(Long userId, String format) {
+        return "\"r" + epoch + "-" + routines.version(userId) + "-" + format + "\"";
+    }
+
+    public long routinesLastModified(Long userId) {
+        return routines.lastModified(userId);
+    }
+
+    public String profileETag(Long userId, String format) {
+        return "\"u" + epoch + "-" + profiles.version(userId) + "-" + format + "\"";
+    }
+
+    public long profileLastModified(Long userId) {
+        return profiles.lastModified(userId);
+    }
+
+    //지금 바로 버전을 올리고, 트랜잭션 안이라면 커밋 / 롤백 후에 한 번 더 올린다 (트랜잭션 밖에서는 쓰기가 끝난 뒤에 호출해야 함)
+    //(커밋 전에 읽어간 이전 내용이 새 버전으로 캐시되는 것 방지 - RoutineListCache.invalidate 와 같은 방식)
+    private static void changed(Long userId, LongConsumer bump) {
+        bump.accept(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump.accept(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.entity.RoutineBodyEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+//본문 테이블(routine_body)이 생기기 전에 저장된 루틴의 routine 컬럼 내용을 본문 테이블로 옮긴다
+//서버가 뜬 뒤 500개씩 나눠서 처리하고, 그동안에도 읽기는 routine 컬럼을 그대로 사용하므로 문제없다
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RoutineBodyMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> migrateChunk());
+            if (moved == null || moved == 0) break;
+            total += moved;
+        }
+        if (total > 0) {
+            log.info("routine body migration - {} routines moved to routine_body", total);
+        }
+    }
+
+    private int migrateChunk() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, routine FROM routine WHERE body_hash IS NULL AND routine IS NOT NULL LIMIT " + CHUNK_SIZE);
+
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            String body = (String) row.get("routine");
+            String hash = RoutineBodyEntity.hashOf(body);
+
+            //본문을 먼저 만들어야 루틴이 가리킬 수 있다
+            //(그 사이에 루틴이 수정 / 삭제되어 아무도 가리키지 않게 된 본문은 RoutineBodyService.reclaim이 지움)
+            jdbcTemplate.update("INSERT IGNORE INTO routine_body (hash, body) VALUES (?, ?)", hash, body);
+            jdbcTemplate.update(
+                    "UPDATE routine SET body_hash = ?, routine = NULL WHERE id = ? AND body_hash IS NULL", hash, id);
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.entity.RoutineBodyEntity;
+import com.example.healthyclub.repository.RoutineBodyRepository;
+import com.example.healthyclub.util.StringInterner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+//루틴 본문(routine_body) 관리
+//루틴을 만들 때 acquire 해서 본문은 내용별로 한 번만 저장된다
+//참조 수를 세지 않으므로(인기 있는 본문의 한 행에 모든 저장이 몰려 잠금을 기다리는 것 방지) 루틴을 지우거나 바꿀 때는 할 일이 없고,
+//아무 루틴도 가리키지 않게 된 본문은 reclaim이 주기적으로 지운다
+//acquire / share 는 RoutineService의 트랜잭션 안에서 호출해야 한다
+@Service
+@Slf4j
+public class RoutineBodyService {
+
+    //정리 작업이 한 번에 확인하는 본문 수
+    private static final int RECLAIM_CHUNK_SIZE = 500;
+
+    private final RoutineBodyRepository routineBodyRepository;
+    //읽기 경로에서 같은 본문 문자열을 하나로 모음
+    private final StringInterner interner;
+
+    public RoutineBodyService(RoutineBodyRepository routineBodyRepository,
+                              @Value("${healthyclub.routine.body.intern-max-size:50000}") int internMaxSize) {
+        this.routineBodyRepository = routineBodyRepository;
+        this.interner = new StringInterner(internMaxSize);
+    }
+
+    //본문 내용에 해당하는 행을 반환 (없으면 새로 만듦). 내용이 null이면 null
+    public RoutineBodyEntity acquire(String body) {
+        if (body == null) return null;
+        String hash = RoutineBodyEntity.hashOf(body);
+        routineBodyRepository.insertIfAbsent(hash, body);
+        return routineBodyRepository.getReferenceById(hash);
+    }
+
+    //여러 본문을 한 번에 acquire. 같은 내용은 한 번만 저장하고, 내용 -> 본문 엔티티 맵을 반환
+    public Map<String, RoutineBodyEntity> acquireAll(Collection<String> bodies) {
+        Map<String, RoutineBodyEntity> acquired = new LinkedHashMap<>();
+        bodies.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(body -> acquired.put(body, acquire(body)));
+        return acquired;
+    }
+
+    //조회한 루틴들의 본문 문자열을 대표 인스턴스로 바꾼 새 dto 목록을 반환 (같은 내용이면 같은 String을 공유)
+    //받은 dto는 건드리지 않는다
+    public List<RoutineDTO> intern(List<RoutineDTO> routines) {
+        return routines.stream()
+                .map(r -> new RoutineDTO(r.getId(), r.getUserid(), r.getDate(), interner.intern(r.getRoutine())))
+                .collect(Collectors.toList());
+    }
+
+    //이미 저장된 본문을 하나 더 가리킬 때 (루틴 복사)
+    //읽은 뒤에 정리 작업이 지웠을 수 있으므로 없으면 다시 만든다 (있으면 아무것도 쓰지 않음)
+    public RoutineBodyEntity share(RoutineBodyEntity body) {
+        if (body == null) return null;
+        routineBodyRepository.insertIfAbsent(body.getHash(), body.getBody());
+        return body;
+    }
+
+    //아무 루틴도 가리키지 않는 본문을 hash 순으로 나눠서 지운다 (한 번에 RECLAIM_CHUNK_SIZE개씩, 각각 짧은 트랜잭션)
+    //그 본문을 지금 acquire / share 하는 트랜잭션이 있으면 그 행의 잠금 때문에 끝날 때까지 기다렸다가 다시 확인하므로 쓰이는 본문은 지우지 않는다
+    @Scheduled(fixedDelayString = "${healthyclub.routine.body.reclaim-interval-ms:3600000}",
+            initialDelayString = "${healthyclub.routine.body.reclaim-interval-ms:3600000}")
+    public void reclaim() {
+        int reclaimed = 0;
+        String after = "";
+        while (true) {
+            List<String> hashes = routineBodyRepository.findHashesAfter(after, RECLAIM_CHUNK_SIZE);
+            if (hashes.isEmpty()) break;
+            reclaimed += routineBodyRepository.deleteUnreferenced(hashes);
+            after = hashes.get(hashes.size() - 1);
+        }
+        if (reclaimed > 0) {
+            log.info("routine body reclaim - {} unreferenced bodies deleted", reclaimed);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.util.BoundedTtlMap;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//유저별 루틴 목록의 앞부분((date, id) 순으로 정해진 개수까지) 캐시
+//GET /routine/{userId} 는 요청한 페이지가 이 구간 안에 있으면 여기서 잘라서 응답하므로 DB를 보지 않는다
+//구간은 수정할 수 없는 리스트로 저장해서 여러 요청이 공유한다 (안의 dto는 꺼낸 쪽에서 복사해서 내보내야 함)
+//루틴이 바뀌면 RoutineService가 invalidate(userId)를 호출해서 그 유저의 목록만 지운다
+@Component
+@Slf4j
+public class RoutineListCache {
+
+    //로드 도중에 무효화가 일어났는지 확인하기 위한 버전 (userId 해시별로 나눠서 관리)
+    private static final int VERSION_STRIPES = 1024;
+
+    private final BoundedTtlMap<Long, Window> entries;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RoutineListCache(MeterRegistry registry,
+                            @Value("${healthyclub.routine.cache.max-users:10000}") int maxUsers,
+                            @Value("${healthyclub.routine.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.entries = new BoundedTtlMap<>(maxUsers);
+        this.ttlMillis = ttlSeconds * 1000;
+
+        FunctionCounter.builder("routine.list.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("routine.list.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        FunctionCounter.builder("routine.list.cache.evictions", entries, BoundedTtlMap::getEvictionCount).register(registry);
+        Gauge.builder("routine.list.cache.size", entries, BoundedTtlMap::size).register(registry);
+        Gauge.builder("routine.list.cache.hit.ratio", this, RoutineListCache::hitRatio).register(registry);
+    }
+
+    //캐시에 있으면 그대로, 없으면 loader로 읽어서 저장 후 반환
+    public Window get(Long userId, Function<Long, Window> loader) {
+        Window cached = entries.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        int stripe = stripe(userId);
+        long version = versions.get(stripe);
+        Window window = loader.apply(userId);
+
+        //읽는 동안 루틴이 바뀌었다면 저장하지 않는다 (오래된 목록이 캐시에 남는 것 방지)
+        if (versions.get(stripe) == version) {
+            entries.put(userId, window, System.currentTimeMillis() + ttlMillis);
+            if (versions.get(stripe) != version) {
+                entries.remove(userId);
+            }
+        }
+        return window;
+    }
+
+    //유저의 루틴 목록이 바뀌었을 때 호출 : 지금 바로 지우고, 트랜잭션 안이라면 커밋 후에 한 번 더 지운다
+    public void invalidate(Long userId) {
+        evictNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(userId);
+                }
+            });
+        }
+    }
+
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private void evictNow(Long userId) {
+        versions.incrementAndGet(stripe(userId));
+        entries.remove(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return (Long.hashCode(userId) & 0x7fffffff) % VERSION_STRIPES;
+    }
+
+    //유저 루틴 목록의 앞부분 ((date, id) 순). complete면 유저의 루틴 전부
+    public static final class Window {
+        private final List<RoutineDTO> routines;
+        private final boolean complete;
+
+        public Window(List<RoutineDTO> routines, boolean complete) {
+            this.routines = List.copyOf(routines);
+            this.complete = complete;
+        }
+
+        public List<RoutineDTO> getRoutines() {
+            return routines;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.event.RoutineChangedEvent;
+import com.example.healthyclub.repository.RoutineExportRepository;
+import com.example.healthyclub.util.LongPostingList;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+//루틴 본문 검색용 역색인 (메모리)
+//형태소 분석기 없이 한국어 단어(스쿼트, 데드리프트 등)의 일부로도 찾을 수 있도록 글자 2개씩(바이그램) 잘라서 색인한다
+//  "데드리프트 5세트" -> 데드, 드리, 리프, 프트, 5세, 세트
+//한 글자짜리 단어는 색인하지 않으므로 검색어의 단어는 두 글자 이상이어야 한다 (shortestWord로 확인)
+//바이그램마다 그 바이그램이 들어있는 루틴 id를 정렬된 long[]로 들고 있고, 검색은 질의의 모든 바이그램 목록의 교집합
+//시작할 때 DB 전체를 읽어서 만들고(토큰 분리는 병렬), 그 뒤로는 RoutineService의 변경 이벤트로 커밋된 변경만 반영한다
+//처음 다 만들기 전(isReady가 false)에는 일부 루틴만 들어 있으므로 검색하면 안 된다
+@Component
+@Slf4j
+public class RoutineSearchIndex {
+
+    //처음 만들 때 한 번에 병렬로 토큰을 자르는 행 수
+    private static final int BUILD_CHUNK_SIZE = 10_000;
+
+    private final RoutineExportRepository routineExportRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    //바이그램 -> 루틴 id 목록 (lock으로 보호)
+    private Map<String, LongPostingList> postings = new HashMap<>();
+    //처음 만드는 동안 들어온 변경 (다 만든 뒤 새 색인에 다시 적용). null이면 만드는 중이 아님
+    private List<RoutineChangedEvent> pending;
+    private volatile boolean ready;
+
+    private final Timer searchTimer;
+
+    public RoutineSearchIndex(RoutineExportRepository routineExportRepository, MeterRegistry registry) {
+        this.routineExportRepository = routineExportRepository;
+        this.searchTimer = Timer.builder("routine.search.latency").register(registry);
+        Gauge.builder("routine.search.index.terms", this, RoutineSearchIndex::termCount).register(registry);
+    }
+
+    //검색 결과 한 페이지 (id는 최신 루틴 순)
+    public static final class Result {
+        private final long[] routineIds;
+        private final boolean hasNext;
+
+        private Result(long[] routineIds, boolean hasNext) {
+            this.routineIds = routineIds;
+            this.hasNext = hasNext;
+        }
+
+        public long[] getRoutineIds() {
+            return routineIds;
+        }
+
+        //다음 페이지가 있는지
+        public boolean hasNext() {
+            return hasNext;
+        }
+    }
+
+    //query의 바이그램을 모두 포함하는 루틴 id를 최신(id가 큰) 순으로 page번째 페이지만 반환
+    //교집합은 이 페이지 끝 + 1개(다음 페이지가 있는지 확인용)까지만 구한다
+    public Result search(String query, int page, int size) {
+        String[] grams = grams(query);
+        if (grams.length == 0) {
+            return new Result(new long[0], false);
+        }
+        long start = (long) page * size;
+        long limit = start + size + 1;
+
+        return searchTimer.record(() -> {
+            long[] matched;
+            lock.readLock().lock();
+            try {
+                matched = intersect(grams, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            //교집합은 이미 최신 순이므로 앞에서부터 잘라냄
+            int from = (int) Math.min(start, matched.length);
+            int to = (int) Math.min(start + size, matched.length);
+            return new Result(Arrays.copyOfRange(matched, from, to), matched.length > start + size);
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    //루틴 변경이 커밋된 뒤에 색인에 반영 (롤백된 변경은 색인에 들어가지 않음)
+    @TransactionalEventListener
+    public void onRoutineChanged(RoutineChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(postings, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //시작할 때 전체 루틴으로 색인을 새로 만듦
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, LongPostingList> next = new HashMap<>();
+        long[] ids = new long[BUILD_CHUNK_SIZE];
+        String[] texts = new String[BUILD_CHUNK_SIZE];
+        int[] filled = {0};
+        long[] total = {0};
+        try {
+            routineExportRepository.streamAll(rs -> {
+                ids[filled[0]] = rs.getLong("id");
+                texts[filled[0]] = rs.getString("routine");
+                if (++filled[0] == BUILD_CHUNK_SIZE) {
+                    addChunk(next, ids, texts, filled[0]);
+                    total[0] += filled[0];
+                    filled[0] = 0;
+                }
+            });
+            addChunk(next, ids, texts, filled[0]);
+            total[0] += filled[0];
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("routine search index build failed", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            //읽는 동안 커밋된 변경을 새 색인에 다시 적용 (이미 읽은 변경이어도 결과는 같음)
+            for (RoutineChangedEvent event : pending) {
+                apply(next, event);
+            }
+            pending = null;
+            postings = next;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("routine search index built - routines : {}, terms : {}, {} ms",
+                total[0], next.size(), System.currentTimeMillis() - started);
+    }
+
+    //한 덩어리의 루틴을 병렬로 바이그램으로 자른 뒤 순서대로 색인에 추가 (id 순으로 들어오므로 목록 끝에 붙이기만 함)
+    private static void addChunk(Map<String, LongPostingList> target, long[] ids, String[] texts, int count) {
+        String[][] grams = IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> grams(texts[i]))
+                .toArray(String[][]::new);
+        for (int i = 0; i < count; i++) {
+            for (String gram : grams[i]) {
+                target.computeIfAbsent(gram, g -> new LongPostingList()).add(ids[i]);
+            }
+            texts[i] = null;
+        }
+    }
+
+    //변경 전 본문의 바이그램에서 id를 빼고 변경 후 본문의 바이그램에 id를 넣음
+    private static void apply(Map<String, LongPostingList> target, RoutineChangedEvent event) {
+        RoutineDTO before = event.getBefore();
+        RoutineDTO after = event.getAfter();
+        if (before != null) {
+            for (String gram : grams(before.getRoutine())) {
+                LongPostingList list = target.get(gram);
+                if (list != null && list.remove(before.getId()) && list.size() == 0) {
+                    target.remove(gram);
+                }
+            }
+        }
+        if (after != null) {
+            for (String gram : grams(after.getRoutine())) {
+                target.computeIfAbsent(gram, g -> new LongPostingList()).add(after.getId());
+            }
+        }
+    }
+
+    //모든 바이그램 목록의 교집합 중 큰 id부터 limit개. 가장 짧은 목록을 뒤에서부터 훑으며 나머지 목록을 갤로핑 탐색으로 건너뛰며 확인
+    private long[] intersect(String[] grams, long limit) {
+        LongPostingList[] lists = new LongPostingList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(LongPostingList::size));
+
+        LongPostingList shortest = lists[0];
+        long[] result = new long[(int) Math.min(shortest.size(), limit)];
+        int[] positions = new int[lists.length];
+        for (int j = 1; j < lists.length; j++) {
+            positions[j] = lists[j].size() - 1;
+        }
+        int count = 0;
+        candidates:
+        for (int i = shortest.size() - 1; i >= 0 && count < result.length; i--) {
+            long id = shortest.get(i);
+            for (int j = 1; j < lists.length; j++) {
+                int pos = lists[j].seekBack(id, positions[j]);
+                positions[j] = pos;
+                if (pos < 0) break candidates;
+                if (lists[j].get(pos) != id) continue candidates;
+            }
+            result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //글자/숫자가 이어진 부분(단어) 중 가장 짧은 것의 길이. 단어가 없으면 0
+    //한 글자짜리 단어는 색인하지 않으므로 검색어에서 이 값이 2보다 작으면 찾을 수 없다
+    public static int shortestWord(String text) {
+        int shortest = 0;
+        int length = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                length++;
+            } else if (length > 0) {
+                shortest = (shortest == 0) ? length : Math.min(shortest, length);
+                length = 0;
+            }
+        }
+        return shortest;
+    }
+
+    //본문을 소문자로 바꾸고 글자/숫자가 이어진 부분마다 바이그램으로 자름 (한 글자짜리 부분은 건너뜀). 중복은 제거
+    static String[] grams(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        Set<String> grams = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                for (int j = start; j + 2 <= i; j++) {
+                    grams.add(normalized.substring(j, j + 2));
+                }
+                start = -1;
+            }
+        }
+        return grams.toArray(new String[0]);
+    }
+}
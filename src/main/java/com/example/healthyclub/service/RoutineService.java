@@ -1,16 +1,35 @@
 package com.example.healthyclub.service;
 
+import com.example.healthyclub.dto.RoutineBatchRequestDTO;
+import com.example.healthyclub.dto.RoutineBatchResponseDTO;
+import com.example.healthyclub.dto.RoutineCalendarDayDTO;
+import com.example.healthyclub.dto.RoutineCursor;
 import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.dto.RoutineSearchResponseDTO;
+import com.example.healthyclub.entity.RoutineBodyEntity;
 import com.example.healthyclub.entity.RoutineEntity;
 import com.example.healthyclub.entity.UserEntity;
+import com.example.healthyclub.error.ServiceBusyException;
+import com.example.healthyclub.event.RoutineChangedEvent;
+import com.example.healthyclub.mapper.RoutineCalendarMapper;
 import com.example.healthyclub.repository.RoutineRepository;
 import com.example.healthyclub.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,8 +37,30 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RoutineService {
 
+    //한 번에 일괄 처리할 수 있는 최대 루틴 수
+    public static final int MAX_BATCH_SIZE = 500;
+    //유저 한 명당 캐시하는 루틴 수 ((date, id) 순으로 앞에서부터, 이 뒤의 페이지는 DB에서 조회)
+    static final int CACHED_WINDOW = 1000;
+    //한 페이지 기본 / 최대 크기
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    //검색 색인을 만드는 중일 때 다시 시도하라고 알려줄 시간 (초)
+    private static final long SEARCH_RETRY_AFTER_SECONDS = 30;
+    //MariaDB DATE 타입이 저장할 수 있는 범위 (날짜 조건이 없을 때 사용)
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
     private final RoutineRepository routineRepository;
     private final UserRepository userRepository;
+    //루틴 주인 유저 확인 (회원 캐시)
+    private final UserService userService;
+    private final RoutineListCache routineListCache;
+    private final ResourceVersions resourceVersions;
+    private final RoutineCalendarMapper routineCalendarMapper;
+    private final RoutineBodyService routineBodyService;
+    private final RoutineSearchIndex routineSearchIndex;
+    //루틴 변경 이벤트 (검색 색인 등 루틴 내용으로 만든 데이터는 이 이벤트를 받아서 커밋 후에 갱신)
+    private final ApplicationEventPublisher eventPublisher;
 
     //Create
     @Transactional
@@ -33,46 +74,245 @@ public class RoutineService {
 
 
         //유저리포지토리를 이용해서 유저 엔티티 생성 (이 유저의 루틴을 만들것임)
-        UserEntity targetUser = userRepository.findById(userId)
-                .orElseThrow(()->new IllegalArgumentException("RoutineService - create : 존재하지 않는 유저입니다"));
+        UserEntity targetUser = userReference(userId, "RoutineService - create : 존재하지 않는 유저입니다");
 
         //인자로 전달된 유저 id와 db에서 찾은 유저 id가 다른지 확인
         if (userId!=targetUser.getId()){
             throw new IllegalArgumentException("RoutineService - create : 잘못된 유저 접근입니다 : 유저 id가 일치하지 않습니다");
         }
 
-        //루틴 엔티티 생성
-        RoutineEntity target = RoutineEntity.toEntity(routineDTO,targetUser);
+        //루틴 엔티티 생성 (본문은 같은 내용이 이미 있으면 그 행을 같이 가리킴)
+        RoutineEntity target = RoutineEntity.toEntity(routineDTO,targetUser,routineBodyService.acquire(routineDTO.getRoutine()));
 
         //루틴 엔티티 DB에 저장
         RoutineEntity created = routineRepository.save(target);
+        routineListCache.invalidate(userId);
+        resourceVersions.routinesChanged(userId);
 
-        //엔티티를 dto로 변환해서 반환
-        return RoutineDTO.toDTO(created);
+        //dto로 변환해서 반환 (본문은 받은 내용 그대로 사용)
+        RoutineDTO result = new RoutineDTO(created.getId(), targetUser.getId(), created.getDate(), routineDTO.getRoutine());
+        eventPublisher.publishEvent(RoutineChangedEvent.created(result));
+        return result;
     }
 
-    //유저 아이디를 받아서 해당 유저의 루틴들을 List<RoutineDTO> 형태로 반환
+    //루틴 여러 개를 한 번에 생성 / 수정 / 삭제
+    //유저 조회와 권한 확인은 한 번만 하고, insert / update는 JDBC 배치로, delete는 IN 조건 한 번으로 처리한다
+    @Transactional
+    public RoutineBatchResponseDTO batch(RoutineBatchRequestDTO request, Long userId, Long tokenId) {
+
+        //인증
+        if (!userId.equals(tokenId)){
+            throw new IllegalArgumentException("나의 루틴만 일괄 처리할 수 있습니다");
+        }
+        if (request.size() > MAX_BATCH_SIZE){
+            throw new IllegalArgumentException("RoutineService-batch : 한 번에 처리할 수 있는 루틴은 " + MAX_BATCH_SIZE + "개까지입니다");
+        }
+
+        UserEntity targetUser = userReference(userId, "RoutineService-batch : 존재하지 않는 유저입니다");
+
+        List<RoutineDTO> toCreate = (request.getCreate() != null) ? request.getCreate() : List.of();
+        List<RoutineDTO> toUpdate = (request.getUpdate() != null) ? request.getUpdate() : List.of();
+        List<Long> toDelete = (request.getDelete() != null) ? request.getDelete() : List.of();
+
+        routineListCache.invalidate(userId);
+        resourceVersions.routinesChanged(userId);
+
+        //생성 (같은 본문은 한 번만 저장)
+        Map<String, RoutineBodyEntity> createBodies = routineBodyService.acquireAll(
+                toCreate.stream().map(RoutineDTO::getRoutine).collect(Collectors.toList()));
+        List<RoutineEntity> created = routineRepository.saveAll(
+                toCreate.stream()
+                        .map(dto->RoutineEntity.toEntity(dto,targetUser,createBodies.get(dto.getRoutine())))
+                        .collect(Collectors.toList()));
+        List<RoutineDTO> createdDTOs = new ArrayList<>();
+        for (int i = 0; i < created.size(); i++) {
+            createdDTOs.add(new RoutineDTO(created.get(i).getId(), userId, created.get(i).getDate(), toCreate.get(i).getRoutine()));
+        }
+        createdDTOs.forEach(dto->eventPublisher.publishEvent(RoutineChangedEvent.created(dto)));
+
+        //수정 : 대상 루틴을 한 번에 읽어와서 수정 (커밋할 때 update가 배치로 나감)
+        Map<Long, RoutineEntity> updateTargets = findOwned(
+                toUpdate.stream().map(RoutineDTO::getId).collect(Collectors.toList()), userId, "update");
+        Map<String, RoutineBodyEntity> updateBodies = routineBodyService.acquireAll(
+                toUpdate.stream().map(RoutineDTO::getRoutine).collect(Collectors.toList()));
+        List<RoutineDTO> updatedDTOs = new ArrayList<>();
+        for (RoutineDTO dto : toUpdate) {
+            RoutineEntity target = updateTargets.get(dto.getId());
+            RoutineDTO before = RoutineDTO.toDTO(target);
+            target.patch(dto, updateBodies.get(dto.getRoutine()));
+            RoutineDTO after = new RoutineDTO(target.getId(), userId, target.getDate(), dto.getRoutine());
+            updatedDTOs.add(after);
+            eventPublisher.publishEvent(RoutineChangedEvent.updated(before, after));
+        }
+
+        //삭제 : 대상 루틴을 확인한 뒤 delete ... where id in (...) 한 번으로 삭제
+        List<RoutineEntity> deleteTargets = new ArrayList<>(findOwned(toDelete, userId, "delete").values());
+        List<RoutineDTO> deletedDTOs = toDTOs(deleteTargets);
+        if (!deleteTargets.isEmpty()) {
+            routineRepository.deleteAllByIdInBatch(
+                    deleteTargets.stream().map(RoutineEntity::getId).collect(Collectors.toList()));
+            deletedDTOs.forEach(dto->eventPublisher.publishEvent(RoutineChangedEvent.deleted(dto)));
+        }
+
+        return new RoutineBatchResponseDTO(createdDTOs, updatedDTOs, deletedDTOs);
+    }
+
+    //유저 아이디를 받아서 해당 유저의 루틴들을 List<RoutineDTO> 형태로 반환 ((date, id) 순)
+    //루틴이 CACHED_WINDOW개 이하라 캐시된 앞부분이 전부면 캐시에서 복사해서, 그보다 많으면 DB에서 전부 읽는다
     public List<RoutineDTO> showAll(Long userId) {
 
-        return routineRepository.findByUserId(userId)
+        RoutineListCache.Window window = routineListCache.get(userId, this::loadForCache);
+        if (window.isComplete()) {
+            return window.getRoutines().stream().map(RoutineService::copy).collect(Collectors.toList());
+        }
+        return routineBodyService.intern(routineRepository.findSortedByUserId(userId, Pageable.unpaged()));
+    }
+
+    //유저의 루틴을 (date, id) 순으로 한 페이지만 반환 (from, to, cursor는 null이면 제한 없음)
+    //from이 없으면 날짜가 없는 루틴도 돌려준다 (정렬에서 NULL은 맨 앞이므로 첫 페이지들에 먼저 나옴)
+    public List<RoutineDTO> showPage(Long userId, LocalDate from, LocalDate to, RoutineCursor cursor, int size) {
+
+        LocalDate lower = (from != null) ? from : MIN_DATE;
+        LocalDate upper = (to != null) ? to : MAX_DATE;
+        if (lower.isAfter(upper)) {
+            throw new IllegalArgumentException("RoutineService-showPage : from이 to보다 늦을 수 없습니다");
+        }
+        boolean undated = (from == null);
+
+        //커서가 없으면 맨 처음부터 (날짜 없는 루틴 -> from 날짜 순)
+        LocalDate afterDate = (cursor != null) ? cursor.getDate() : null;
+        Long afterId = (cursor != null) ? cursor.getId() : 0L;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        //페이지가 캐시된 앞부분 안에 있으면 거기서 잘라서 반환
+        List<RoutineDTO> cached = slice(routineListCache.get(userId, this::loadForCache),
+                undated, lower, upper, afterDate, afterId, pageSize);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<RoutineDTO> page = new ArrayList<>(pageSize);
+        if (afterDate == null) {
+            if (undated) {
+                page.addAll(routineRepository.findUndatedPage(userId, afterId, PageRequest.of(0, pageSize)));
+            }
+            //날짜가 있는 루틴은 from 날짜의 처음부터
+            afterDate = lower;
+            afterId = 0L;
+        }
+        if (page.size() < pageSize) {
+            page.addAll(routineRepository.findPage(userId, lower, upper, afterDate, afterId, PageRequest.of(0, pageSize - page.size())));
+        }
+        return routineBodyService.intern(page);
+    }
+
+    //캐시에 넣을 유저 루틴 목록의 앞부분 (루틴 수와 상관없이 CACHED_WINDOW + 1개까지만 읽음)
+    private RoutineListCache.Window loadForCache(Long userId) {
+        List<RoutineDTO> routines = routineRepository.findSortedByUserId(userId, PageRequest.of(0, CACHED_WINDOW + 1));
+        boolean complete = routines.size() <= CACHED_WINDOW;
+        if (!complete) {
+            routines = routines.subList(0, CACHED_WINDOW);
+        }
+        //캐시에 오래 머무르므로 같은 본문은 하나의 문자열을 공유하게 함
+        return new RoutineListCache.Window(routineBodyService.intern(routines), complete);
+    }
+
+    //(date, id) 순으로 정렬된 앞부분에서 showPage의 DB 조회와 같은 조건으로 한 페이지를 잘라냄 (이진 탐색으로 시작 위치를 찾음)
+    //afterDate가 null이면 날짜 없는 루틴 중 afterId 다음부터
+    //페이지가 다 차기 전에 앞부분 끝에 닿았는데 뒤에 루틴이 더 있다면 null (DB에서 조회해야 함)
+    //캐시 안의 dto는 여러 요청이 공유하므로 복사해서 반환
+    private static List<RoutineDTO> slice(RoutineListCache.Window window, boolean undated, LocalDate from, LocalDate to,
+                                          LocalDate afterDate, Long afterId, int size) {
+        List<RoutineDTO> sorted = window.getRoutines();
+        int lo = 0, hi = sorted.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            RoutineDTO r = sorted.get(mid);
+            int c = compareDates(r.getDate(), afterDate);
+            if (c < 0 || (c == 0 && r.getId() <= afterId)) lo = mid + 1;
+            else hi = mid;
+        }
+
+        List<RoutineDTO> page = new ArrayList<>(Math.min(size, sorted.size() - lo));
+        int i = lo;
+        for (; i < sorted.size() && page.size() < size; i++) {
+            RoutineDTO r = sorted.get(i);
+            if (r.getDate() == null) {
+                if (undated) page.add(copy(r));
+                continue;
+            }
+            if (r.getDate().isAfter(to)) return page;
+            if (!r.getDate().isBefore(from)) page.add(copy(r));
+        }
+        if (page.size() < size && i == sorted.size() && !window.isComplete()) {
+            return null;
+        }
+        return page;
+    }
+
+    private static RoutineDTO copy(RoutineDTO r) {
+        return new RoutineDTO(r.getId(), r.getUserid(), r.getDate(), r.getRoutine());
+    }
+
+    //DB 정렬과 같이 날짜가 없는(NULL) 쪽을 앞으로
+    private static int compareDates(LocalDate a, LocalDate b) {
+        if (a == null) return (b == null) ? 0 : -1;
+        return (b == null) ? 1 : a.compareTo(b);
+    }
+
+
+    //유저의 한 달 치 루틴을 날짜별로 묶어서 반환 (달력 표시용)
+    public List<RoutineCalendarDayDTO> calendar(Long userId, YearMonth month) {
+
+        return routineCalendarMapper.countByDay(userId, month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+
+    //루틴 본문 검색 - 검색 색인에서 한 페이지 분량의 id만 찾고, 그 id들의 루틴만 DB에서 읽어옴
+    public RoutineSearchResponseDTO search(String query, int page, int size) {
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("RoutineService-search : 검색어가 없습니다");
+        }
+        if (RoutineSearchIndex.shortestWord(query) < 2) {
+            throw new IllegalArgumentException("RoutineService-search : 검색어의 단어는 두 글자 이상이어야 합니다");
+        }
+        //서버가 뜬 직후 색인을 다 만들기 전에는 일부 루틴만 찾아지므로 잠시 뒤에 다시 시도하게 함
+        if (!routineSearchIndex.isReady()) {
+            throw new ServiceBusyException("검색 색인을 준비하고 있습니다. 잠시 후 다시 시도해주세요", SEARCH_RETRY_AFTER_SECONDS);
+        }
+        int pageNo = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        RoutineSearchIndex.Result result = routineSearchIndex.search(query, pageNo, pageSize);
+        if (result.getRoutineIds().length == 0) {
+            return new RoutineSearchResponseDTO(result.hasNext(), pageNo, pageSize, List.of());
+        }
+
+        //색인 순서(최신 순)대로 정렬. 색인 반영 전에 지워진 루틴은 빠짐
+        List<Long> ids = Arrays.stream(result.getRoutineIds()).boxed().collect(Collectors.toList());
+        Map<Long, RoutineDTO> found = routineRepository.findDTOsByIdIn(ids)
                 .stream()
-                .map(routine->RoutineDTO.toDTO(routine))
+                .collect(Collectors.toMap(RoutineDTO::getId, Function.identity()));
+        List<RoutineDTO> routines = ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new RoutineSearchResponseDTO(result.hasNext(), pageNo, pageSize, routineBodyService.intern(routines));
     }
 
 
     //유저 아이디랑 루틴 아이디를 받아서 해당 유저의 해당 루틴을 RoutineDTO 형태로 반환
     public RoutineDTO show(Long userId, Long routineId) {
 
-        RoutineEntity found = routineRepository.findById(routineId)
+        RoutineDTO found = routineRepository.findDTOById(routineId)
                 .orElseThrow(()->new IllegalArgumentException("RoutineService-show : 루틴을 찾을 수 없습니다"));
 
-        if (found.getUser().getId()!=userId){
+        if (!found.getUserid().equals(userId)){
             throw new IllegalArgumentException("RoutineService-show : 잘못된 접근 : 로그인한 사용자의 루틴이 아닙니다");
         }
 
-        //dto로 변환해서 반환
-        return RoutineDTO.toDTO(found);
+        return found;
     }
 
 
@@ -94,14 +334,21 @@ public class RoutineService {
             throw new IllegalArgumentException("RoutineService-update : 잘못된 접근 : 로그인한 사용자의 루틴이 아닙니다");
         }
 
-        //루틴 수정
-        target.patch(routineDTO);
+        //루틴 수정 (새 본문을 가리키게 함. 이전 본문은 아무도 가리키지 않게 되면 나중에 정리됨)
+        RoutineDTO before = RoutineDTO.toDTO(target);
+        target.patch(routineDTO, routineBodyService.acquire(routineDTO.getRoutine()));
         
         //DB에 적용하고 리턴
-        return RoutineDTO.toDTO(routineRepository.save(target));
+        RoutineEntity updated = routineRepository.save(target);
+        routineListCache.invalidate(userId);
+        resourceVersions.routinesChanged(userId);
+        RoutineDTO after = new RoutineDTO(updated.getId(), userId, updated.getDate(), routineDTO.getRoutine());
+        eventPublisher.publishEvent(RoutineChangedEvent.updated(before, after));
+        return after;
     }
 
     //루틴 삭제
+    @Transactional
     public RoutineDTO delete(Long userId, Long routineId, Long tokenId) {
 
         //인증
@@ -118,13 +365,48 @@ public class RoutineService {
             throw new IllegalArgumentException("RoutineService-delete : 잘못된 접근 : 로그인한 사용자의 루틴이 아닙니다");
         }
         
-        //루틴 삭제
+        //루틴 삭제 (본문은 아무도 가리키지 않게 되면 나중에 정리됨)
+        RoutineDTO deleted = RoutineDTO.toDTO(target);
         routineRepository.delete(target);
+        routineListCache.invalidate(userId);
+        resourceVersions.routinesChanged(userId);
+        eventPublisher.publishEvent(RoutineChangedEvent.deleted(deleted));
         
-        return RoutineDTO.toDTO(target);
+        return deleted;
+    }
+
+
+    //id들에 해당하는 루틴을 한 번에 읽고 모두 userId의 루틴인지 확인
+    private Map<Long, RoutineEntity> findOwned(List<Long> routineIds, Long userId, String action) {
+        if (routineIds.isEmpty()) {
+            return Map.of();
+        }
+        if (routineIds.contains(null)) {
+            throw new IllegalArgumentException("RoutineService-batch : " + action + "할 루틴의 id가 없습니다");
+        }
+        Map<Long, RoutineEntity> found = routineRepository.findAllById(routineIds)
+                .stream()
+                .collect(Collectors.toMap(RoutineEntity::getId, Function.identity()));
+        for (Long routineId : routineIds) {
+            RoutineEntity target = found.get(routineId);
+            if (target == null) {
+                throw new IllegalArgumentException("RoutineService-batch : 루틴을 찾을 수 없습니다 : " + routineId);
+            }
+            if (!target.getUser().getId().equals(userId)) {
+                throw new IllegalArgumentException("RoutineService-batch : 잘못된 접근 : 로그인한 사용자의 루틴이 아닙니다 : " + routineId);
+            }
+        }
+        return found;
     }
 
+    private static List<RoutineDTO> toDTOs(List<RoutineEntity> entities) {
+        return entities.stream()
+                .map(RoutineDTO::toDTO)
+                .collect(Collectors.toList());
+    }
 
+    //루틴 복사 - 본문은 다시 저장하지 않고 같은 본문을 가리키는 행만 추가
+    @Transactional
     public RoutineDTO copy(Long routineId, Long tokenId) {
 
         //복사하려는 루틴 엔티티
@@ -132,15 +414,32 @@ public class RoutineService {
                 .orElseThrow(()->new IllegalArgumentException("존재하지 않는 루틴입니다. 복사할 수 없습니다"));
 
         //지금 로그인한 유저 엔티티
-        UserEntity targetUser = userRepository.findById(tokenId)
-                .orElseThrow(()->new IllegalArgumentException("존재하지 않는 유저입니다. 루틴을 복사할 수 없습니다"));
+        UserEntity targetUser = userReference(tokenId, "존재하지 않는 유저입니다. 루틴을 복사할 수 없습니다");
+
+        //본문 테이블이 생기기 전의 루틴이면 이번에 본문을 만듦
+        RoutineBodyEntity body = (target.getBody() != null)
+                ? routineBodyService.share(target.getBody())
+                : routineBodyService.acquire(target.getRoutine());
 
         RoutineEntity copied = RoutineEntity.toEntity(
-                new RoutineDTO(null,targetUser.getId(),target.getDate(),target.getRoutine()),
-                targetUser);
+                new RoutineDTO(null,targetUser.getId(),target.getDate(),null),
+                targetUser,
+                body);
 
-        return RoutineDTO.toDTO(routineRepository.save(copied));
+        RoutineEntity saved = routineRepository.save(copied);
+        routineListCache.invalidate(targetUser.getId());
+        resourceVersions.routinesChanged(targetUser.getId());
+        RoutineDTO result = new RoutineDTO(saved.getId(), targetUser.getId(), saved.getDate(), target.getRoutine());
+        eventPublisher.publishEvent(RoutineChangedEvent.copied(result));
+        return result;
 
     }
-}
 
+    //루틴 주인 유저 엔티티. 존재 여부는 회원 캐시로 확인하고, 엔티티는 select 없이 id만 가진 참조로 만든다 (FK 값으로만 쓰임)
+    private UserEntity userReference(Long userId, String message) {
+        if (userService.find(userId) == null) {
+            throw new IllegalArgumentException(message);
+        }
+        return userRepository.getReferenceById(userId);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.dto.RoutineStatDTO;
+import com.example.healthyclub.event.RoutineChangedEvent;
+import com.example.healthyclub.repository.RoutineExportRepository;
+import com.example.healthyclub.repository.RoutineStatRepository;
+import com.example.healthyclub.util.RoutineParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+//유저별 / 운동별 / 주별 루틴 통계(routine_stat) 관리
+//루틴이 바뀔 때마다 변경 전 본문의 통계를 빼고 변경 후 본문의 통계를 더한다 -> 통계 조회는 기록 양과 상관없이 기간만큼만 읽음
+//한 트랜잭션의 변경(일괄 처리 등)은 메모리에서 (유저, 운동, 주)별로 합친 뒤 커밋 직전에 JDBC 배치 한 번으로 반영하므로 루틴 변경과 같이 커밋 / 롤백된다
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RoutineStatService implements SmartInitializingSingleton {
+
+    //한 번에 조회할 수 있는 최대 주 수
+    public static final int MAX_WEEKS = 104;
+    //통계를 처음 채울 때 한 번에 읽어서 반영하는 루틴 수
+    private static final int BACKFILL_CHUNK_SIZE = 5000;
+
+    private static final String UPSERT =
+            "INSERT INTO routine_stat (user_id, exercise, week_start, routines, sets, reps, volume) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE routines = routines + VALUES(routines), sets = sets + VALUES(sets), " +
+            "reps = reps + VALUES(reps), volume = volume + VALUES(volume)";
+    //이 운동이 들어간 루틴이 하나도 없게 된 주는 지움
+    private static final String DELETE_EMPTY =
+            "DELETE FROM routine_stat WHERE user_id = ? AND exercise = ? AND week_start = ? AND routines <= 0";
+
+    private final RoutineStatRepository routineStatRepository;
+    private final RoutineExportRepository routineExportRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    //유저의 최근 weeks주 통계 (exercise가 없으면 모든 운동)
+    public List<RoutineStatDTO> weekly(Long userId, String exercise, int weeks) {
+
+        int range = Math.max(1, Math.min(weeks, MAX_WEEKS));
+        LocalDate to = weekStart(LocalDate.now());
+        LocalDate from = to.minusWeeks(range - 1);
+
+        if (exercise == null || exercise.isBlank()) {
+            return routineStatRepository.findWeeklyAll(userId, from, to);
+        }
+        return routineStatRepository.findWeekly(userId, RoutineParser.normalizeName(exercise), from, to);
+    }
+
+    //RoutineService가 루틴을 바꾼 트랜잭션 안에서 호출됨 (변경분만 모아둠)
+    @EventListener
+    public void onRoutineChanged(RoutineChangedEvent event) {
+        Map<Key, Delta> deltas = new HashMap<>();
+        collect(deltas, event.getBefore(), -1);
+        collect(deltas, event.getAfter(), 1);
+        if (deltas.isEmpty()) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(deltas);
+            return;
+        }
+        Map<Key, Delta> pending = pendingDeltas();
+        deltas.forEach((key, delta) -> pending.merge(key, delta, Delta::plus));
+    }
+
+    //routine_stat이 비어 있는데 루틴은 있으면(통계 테이블이 생기기 전 데이터) 전체 루틴으로 한 번 채운다
+    //웹 서버가 요청을 받기 전에 실행된다. 다른 서버가 채우는 중이라 잠금을 기다리다 시간이 지나면 다시 기다림
+    @Override
+    public void afterSingletonsInstantiated() {
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> backfill());
+                return;
+            } catch (PessimisticLockingFailureException e) {
+                log.info("routine stats backfill - waiting for another instance to finish");
+            }
+        }
+    }
+
+    //한 트랜잭션 안에서 : 빈 routine_stat을 FOR UPDATE로 읽어서 잠그고(다른 서버의 백필과 통계 반영은 커밋까지 기다림)
+    //루틴을 BACKFILL_CHUNK_SIZE개씩 읽어서 덩어리마다 반영한다 (메모리에는 한 덩어리의 변경분만 둠)
+    //중간에 실패하면 전부 롤백되어 테이블이 다시 비므로 다음 시작 때 처음부터 채운다
+    void backfill() {
+        if (!jdbcTemplate.queryForList("SELECT 1 FROM routine_stat LIMIT 1 FOR UPDATE", Integer.class).isEmpty()) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        Map<Key, Delta> deltas = new HashMap<>();
+        long[] lastId = {0};
+        int[] read = {0};
+        int routines = 0;
+        do {
+            read[0] = 0;
+            routineExportRepository.streamAfter(lastId[0], BACKFILL_CHUNK_SIZE, rs -> {
+                Date date = rs.getDate("date");
+                lastId[0] = rs.getLong("id");
+                collect(deltas, new RoutineDTO(lastId[0], rs.getLong("user_id"),
+                        date != null ? date.toLocalDate() : null, rs.getString("routine")), 1);
+                read[0]++;
+            });
+            routines += read[0];
+            write(deltas);
+        } while (read[0] == BACKFILL_CHUNK_SIZE);
+
+        if (routines > 0) {
+            log.info("routine stats built - routines : {}, {} ms", routines, System.currentTimeMillis() - started);
+        }
+    }
+
+    //루틴 하나의 통계를 sign(+1 / -1)을 곱해서 deltas에 더함
+    private static void collect(Map<Key, Delta> deltas, RoutineDTO routine, int sign) {
+        if (routine == null || routine.getDate() == null || routine.getUserid() == null) return;
+        LocalDate week = weekStart(routine.getDate());
+        for (RoutineParser.Exercise exercise : RoutineParser.parse(routine.getRoutine())) {
+            Delta delta = new Delta(sign, sign * exercise.getSets(), sign * exercise.getReps(), sign * exercise.getVolume());
+            deltas.merge(new Key(routine.getUserid(), exercise.getName(), week), delta, Delta::plus);
+        }
+    }
+
+    //지금 트랜잭션에 묶인 변경분. 처음 호출될 때 만들고 커밋 직전에 반영하도록 등록
+    @SuppressWarnings("unchecked")
+    private Map<Key, Delta> pendingDeltas() {
+        Map<Key, Delta> pending = (Map<Key, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) return pending;
+
+        Map<Key, Delta> created = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RoutineStatService.this);
+            }
+        });
+        return created;
+    }
+
+    private void write(Map<Key, Delta> deltas) {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> emptied = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (delta.isZero()) return;
+            Date week = Date.valueOf(key.weekStart);
+            upserts.add(new Object[]{key.userId, key.exercise, week, delta.routines, delta.sets, delta.reps, delta.volume});
+            if (delta.routines < 0) {
+                emptied.add(new Object[]{key.userId, key.exercise, week});
+            }
+        });
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, upserts);
+        }
+        if (!emptied.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_EMPTY, emptied);
+        }
+        deltas.clear();
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final String exercise;
+        private final LocalDate weekStart;
+
+        private Key(Long userId, String exercise, LocalDate weekStart) {
+            this.userId = userId;
+            this.exercise = exercise;
+            this.weekStart = weekStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId.equals(other.userId) && exercise.equals(other.exercise) && weekStart.equals(other.weekStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, exercise, weekStart);
+        }
+    }
+
+    private static final class Delta {
+        private final int routines;
+        private final int sets;
+        private final int reps;
+        private final double volume;
+
+        private Delta(int routines, int sets, int reps, double volume) {
+            this.routines = routines;
+            this.sets = sets;
+            this.reps = reps;
+            this.volume = volume;
+        }
+
+        private Delta plus(Delta other) {
+            return new Delta(routines + other.routines, sets + other.sets, reps + other.reps, volume + other.volume);
+        }
+
+        //같은 트랜잭션에서 더했다 뺀 경우 (본문이 안 바뀐 수정 등)
+        private boolean isZero() {
+            return routines == 0 && sets == 0 && reps == 0 && Math.abs(volume) < 1e-9;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.entity.UserEntity;
+import com.example.healthyclub.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//아이디 / 닉네임 / 이메일 중복 확인
+//필드마다 가입된 값의 블룸 필터를 메모리에 들고 있어서 "확실히 없음"(사용 가능)이면 DB를 보지 않고,
+//"있을 수도 있음"일 때만 인덱스가 걸린 컬럼으로 DB를 확인한다
+//값은 소문자로 바꿔서 넣는다 (DB 비교가 대소문자를 구분하지 않으므로 필터도 같게 맞춤)
+//탈퇴 / 변경으로 빠진 값은 필터에서 지울 수 없으므로 주기적으로 다시 만든다
+//필터는 서버마다 따로 있고 다른 서버 / 일괄 등록으로 들어온 값은 모를 수 있으므로, 중복을 최종적으로 막는 것은 DB 유니크 제약이다
+//(가입 / 수정 / 일괄 등록은 제약 위반을 duplicated로 "이미 사용 중인 ..." 예외로 바꾼다)
+@Service
+@Slf4j
+public class UserAvailabilityService implements SmartInitializingSingleton {
+
+    public enum Field {
+        USER_ID("user_id", "userId", "아이디", UserEntity.UK_USER_ID),
+        NICKNAME("nickname", "nickname", "닉네임", UserEntity.UK_NICKNAME),
+        EMAIL("email", "email", "이메일", UserEntity.UK_EMAIL);
+
+        private final String column;
+        private final String parameter;
+        private final String label;
+        private final String constraint;
+
+        Field(String column, String parameter, String label, String constraint) {
+            this.column = column;
+            this.parameter = parameter;
+            this.label = label;
+            this.constraint = constraint;
+        }
+
+        public String getParameter() {
+            return parameter;
+        }
+    }
+
+    //만들 때 id 범위를 나눠서 읽는 구간 수
+    private static final int SCAN_RANGES = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    //구간을 동시에 읽는 스레드 수 = 다시 만드는 동안 잡는 DB 커넥션 수 (커넥션 풀보다 한참 작게)
+    private final int rebuildThreads;
+
+    //다시 만들 때 통째로 바꿔 끼우므로 volatile
+    private volatile Filters filters;
+    //다시 만드는 중인 필터 (만드는 동안 가입한 값도 같이 넣음). null이면 만드는 중이 아님
+    private volatile Filters building;
+
+    private final Counter filterPasses;
+    private final Counter storeLookups;
+
+    public UserAvailabilityService(JdbcTemplate jdbcTemplate,
+                                   MeterRegistry registry,
+                                   @Value("${healthyclub.auth.availability.expected-size:100000}") long expectedUsers,
+                                   @Value("${healthyclub.auth.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${healthyclub.auth.availability.rebuild-threads:2}") int rebuildThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildThreads = Math.max(1, rebuildThreads);
+        this.filters = new Filters(expectedUsers, falsePositiveRate);
+
+        this.filterPasses = Counter.builder("auth.availability.checks").tag("result", "filter-pass").register(registry);
+        this.storeLookups = Counter.builder("auth.availability.checks").tag("result", "store-lookup").register(registry);
+    }
+
+    //값을 쓸 수 있는지 (excludeId : 이 회원이 쓰고 있는 값은 사용 가능으로 봄, 없으면 null)
+    public boolean isAvailable(Field field, String value, Long excludeId) {
+        String key = normalize(value);
+        if (key.isEmpty()) return false;
+        if (!filters.of(field).mightContain(key)) {
+            filterPasses.increment();
+            return true;
+        }
+        //블룸 필터에서 "있을 수도 있음"이 나왔을 때만 DB 확인
+        storeLookups.increment();
+        Boolean taken = jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM user WHERE " + field.column + " = ? AND id <> ?)",
+                Boolean.class, value.strip(), (excludeId != null) ? excludeId : -1L);
+        return !Boolean.TRUE.equals(taken);
+    }
+
+    //요청에 있는 필드만 확인 (파라미터 이름 -> 사용 가능 여부)
+    public Map<String, Boolean> check(String userId, String nickname, String email) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        if (userId != null) result.put(Field.USER_ID.parameter, isAvailable(Field.USER_ID, userId, null));
+        if (nickname != null) result.put(Field.NICKNAME.parameter, isAvailable(Field.NICKNAME, nickname, null));
+        if (email != null) result.put(Field.EMAIL.parameter, isAvailable(Field.EMAIL, email, null));
+        return result;
+    }
+
+    //가입 / 수정 전에 다른 회원이 쓰고 있는 값이 있으면 예외
+    public void requireAvailable(UserEntity user, Long excludeId) {
+        require(Field.USER_ID, user.getUserId(), excludeId);
+        require(Field.NICKNAME, user.getNickname(), excludeId);
+        require(Field.EMAIL, user.getEmail(), excludeId);
+    }
+
+    //저장하다가 유니크 제약에 걸렸을 때 : 어떤 값이 겹쳤는지 제약 이름으로 찾아서 "이미 사용 중인 ..." 예외로 바꿈
+    //아이디 / 닉네임 / 이메일 제약이 아니면 받은 예외를 그대로 던진다
+    public IllegalArgumentException duplicated(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        for (Field field : Field.values()) {
+            if (message.contains(field.constraint)) {
+                return new IllegalArgumentException("이미 사용 중인 " + field.label + "입니다.", e);
+            }
+        }
+        throw e;
+    }
+
+    //가입 / 수정이 저장된 뒤에 새 값을 필터에 넣음
+    //만드는 중인 필터를 먼저 읽는다 (다 만든 직후에는 filters가 이미 새 필터이므로 어느 쪽에도 빠지지 않음)
+    public void register(UserEntity user) {
+        Filters next = building;
+        Filters current = filters;
+        current.put(user);
+        if (next != null && next != current) next.put(user);
+    }
+
+    //웹 서버가 요청을 받기 전에 만든다
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    //전체 회원을 id 구간별로 읽어서 새로 만든 뒤 바꿔 끼운다
+    //구간은 이번 재구성에만 쓰는 rebuildThreads개 스레드가 나눠 읽는다 (공용 ForkJoinPool에서 JDBC를 막고 기다리지 않도록)
+    //만드는 동안 가입한 회원은 register에서 새 필터에도 들어가므로 빠지지 않는다
+    @Scheduled(fixedDelayString = "${healthyclub.auth.availability.rebuild-interval-ms:3600000}",
+            initialDelayString = "${healthyclub.auth.availability.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        Long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user", Long.class);
+        Filters next = new Filters(Math.max(expectedUsers, (users != null ? users : 0) * 2), falsePositiveRate);
+        building = next;
+        try {
+            Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM user");
+            if (range.get("lo") != null) {
+                long lo = ((Number) range.get("lo")).longValue();
+                long hi = ((Number) range.get("hi")).longValue() + 1;
+                long step = Math.max(1, (hi - lo + SCAN_RANGES - 1) / SCAN_RANGES);
+                scan(next, lo, hi, step);
+            }
+            filters = next;
+        } finally {
+            building = null;
+        }
+        log.info("availability filters built - users : {}, {} ms", users, System.currentTimeMillis() - started);
+    }
+
+    //필터는 여러 스레드가 동시에 넣어도 안전함
+    private void scan(Filters next, long lo, long hi, long step) {
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads, r -> {
+            Thread t = new Thread(r, "availability-rebuild-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> scans = new ArrayList<>(SCAN_RANGES);
+            for (int i = 0; i < SCAN_RANGES; i++) {
+                long from = lo + i * step;
+                long to = Math.min(hi, from + step);
+                scans.add(executor.submit(() ->
+                        jdbcTemplate.query("SELECT user_id, nickname, email FROM user WHERE id >= ? AND id < ?",
+                                rs -> {
+                                    next.put(rs.getString("user_id"), rs.getString("nickname"), rs.getString("email"));
+                                },
+                                from, to)));
+            }
+            for (Future<?> scan : scans) {
+                scan.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("중복 확인 필터를 만드는 중에 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void require(Field field, String value, Long excludeId) {
+        if (value == null || value.isBlank()) return;
+        if (!isAvailable(field, value, excludeId)) {
+            throw new IllegalArgumentException("이미 사용 중인 " + field.label + "입니다.");
+        }
+    }
+
+    private static String normalize(String value) {
+        return (value == null) ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+        private final BloomFilter userIds;
+        private final BloomFilter nicknames;
+        private final BloomFilter emails;
+
+        private Filters(long expected, double falsePositiveRate) {
+            this.userIds = new BloomFilter(expected, falsePositiveRate);
+            this.nicknames = new BloomFilter(expected, falsePositiveRate);
+            this.emails = new BloomFilter(expected, falsePositiveRate);
+        }
+
+        private BloomFilter of(Field field) {
+            switch (field) {
+                case USER_ID: return userIds;
+                case NICKNAME: return nicknames;
+                default: return emails;
+            }
+        }
+
+        private void put(UserEntity user) {
+            put(user.getUserId(), user.getNickname(), user.getEmail());
+        }
+
+        private void put(String userId, String nickname, String email) {
+            putIfPresent(userIds, userId);
+            putIfPresent(nicknames, nickname);
+            putIfPresent(emails, email);
+        }
+
+        private static void putIfPresent(BloomFilter filter, String value) {
+            String key = normalize(value);
+            if (!key.isEmpty()) filter.put(key);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.UserSnapshot;
+import com.example.healthyclub.util.BoundedTtlMap;
+import com.example.healthyclub.util.StripedVersions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//회원 정보 캐시 (id로도, 로그인 아이디(userId)로도 찾을 수 있음)
+//값은 수정할 수 없는 UserSnapshot이라 여러 요청이 그대로 공유한다
+//로그인 아이디 -> id 색인은 따로 지우지 않고, 찾은 스냅샷의 아이디가 다르면(아이디 변경 / 탈퇴) 없는 것으로 본다
+//회원 정보가 바뀌면 UserService가 invalidate(id)를 호출한다
+@Component
+public class UserCache {
+
+    //로드 도중에 무효화가 일어났는지 확인하기 위한 버전
+    private final StripedVersions versions = new StripedVersions(1024, 0);
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<String, Long> idByLoginId = new ConcurrentHashMap<>();
+    //밀려난 회원을 가리키는 로그인 아이디 색인도 같이 지움
+    private final BoundedTtlMap<Long, UserSnapshot> byId;
+
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserCache(MeterRegistry registry,
+                     @Value("${healthyclub.user.cache.max-size:10000}") int maxSize,
+                     @Value("${healthyclub.user.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.byId = new BoundedTtlMap<>(maxSize, (id, user) -> {
+            if (user.getUserId() != null) idByLoginId.remove(user.getUserId(), id);
+        });
+        this.ttlMillis = ttlSeconds * 1000;
+
+        FunctionCounter.builder("user.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("user.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        Gauge.builder("user.cache.size", byId, BoundedTtlMap::size).register(registry);
+    }
+
+    //캐시에 있으면 그대로, 없으면 loader로 읽어서 저장 후 반환 (없는 회원이면 null, 저장하지 않음)
+    public UserSnapshot get(Long id, Supplier<UserSnapshot> loader) {
+        UserSnapshot cached = cached(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long version = versions.version(id);
+        return store(loader.get(), version);
+    }
+
+    public UserSnapshot getByLoginId(String loginId, Supplier<UserSnapshot> loader) {
+        Long id = idByLoginId.get(loginId);
+        if (id != null) {
+            UserSnapshot cached = cached(id);
+            if (cached != null && loginId.equals(cached.getUserId())) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        //읽기 전에는 누구의 정보인지 모르므로 전체 무효화 횟수로 확인 (읽는 동안 누구든 무효화됐으면 저장하지 않음)
+        long before = invalidations.get();
+        UserSnapshot loaded = loader.get();
+        if (loaded == null) return null;
+        long version = versions.version(loaded.getId());
+        if (invalidations.get() != before) return loaded;
+        return store(loaded, version);
+    }
+
+    //캐시에 있을 때만 반환 (없으면 읽지 않고 null)
+    public UserSnapshot peek(Long id) {
+        UserSnapshot cached = cached(id);
+        (cached != null ? hits : misses).increment();
+        return cached;
+    }
+
+    //회원 정보가 바뀌었을 때 : 지금 바로 지우고, 트랜잭션 안이라면 끝난 뒤에 한 번 더 지운다
+    public void invalidate(Long id) {
+        evictNow(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+
+    private UserSnapshot cached(Long id) {
+        return byId.get(id);
+    }
+
+    //읽는 동안 무효화됐다면 저장하지 않는다 (오래된 정보가 캐시에 남는 것 방지)
+    private UserSnapshot store(UserSnapshot user, long version) {
+        if (user == null) return null;
+        Long id = user.getId();
+        if (versions.version(id) != version) return user;
+
+        byId.put(id, user, System.currentTimeMillis() + ttlMillis);
+        if (user.getUserId() != null) idByLoginId.put(user.getUserId(), id);
+        //저장하는 사이에 무효화됐다면 방금 넣은 색인까지 되돌린다 (remove는 onEvict가 불리지 않음)
+        if (versions.version(id) != version) {
+            byId.remove(id);
+            if (user.getUserId() != null) idByLoginId.remove(user.getUserId(), id);
+        }
+        return user;
+    }
+
+    private void evictNow(Long id) {
+        versions.bump(id, 0);
+        invalidations.incrementAndGet();
+        UserSnapshot removed = byId.remove(id);
+        if (removed != null && removed.getUserId() != null) {
+            idByLoginId.remove(removed.getUserId(), id);
+        }
+    }
+}
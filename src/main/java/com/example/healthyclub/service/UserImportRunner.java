@@ -0,0 +1,56 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.UserImportResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+//명령줄에서 회원 CSV를 일괄 등록하고 종료
+//  java -jar healthyclub.jar --spring.main.web-application-type=none --import-users=members.csv
+//--import-users 가 없으면 아무것도 하지 않으므로 평소 서버 실행에는 영향 없음
+//종료 코드 : 0 전부 등록, 1 실패, 2 건너뛴 행 있음
+//따로 띄운 프로세스라서 등록하면서 채운 중복 확인 필터 / 운동 종목 색인은 이 프로세스와 함께 사라진다
+//이미 떠 있는 서버는 DB를 다시 읽을 때 반영한다 : 운동 종목 색인(친구 추천)은 healthyclub.friend.exercise-index.reload-interval-ms,
+//중복 확인 필터는 healthyclub.auth.availability.rebuild-interval-ms 마다. 그 사이 같은 값으로 가입하면 DB 유니크 제약에 걸려 400
+//(서버 안의 관리자 엔드포인트로 돌리지 않는 것은 수십만 행 해싱이 요청 처리 서버의 CPU를 잡아먹지 않도록)
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserImportRunner implements ApplicationRunner {
+
+    public static final String OPTION = "import-users";
+
+    private final UserImportService importService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) return;
+
+        int exitCode = 0;
+        for (String file : args.getOptionValues(OPTION)) {
+            log.info("user import - {}", file);
+            try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                UserImportResultDTO result = importService.importCsv(reader);
+                result.getErrors().forEach(error -> log.warn("user import - {} line {}", file, error));
+                if (result.getRejected() > 0) exitCode = Math.max(exitCode, 2);
+            } catch (Exception e) {
+                log.error("user import failed - {}", file, e);
+                exitCode = 1;
+                break;
+            }
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
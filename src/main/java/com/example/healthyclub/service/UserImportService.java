@@ -0,0 +1,387 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.UserImportResultDTO;
+import com.example.healthyclub.entity.UserEntity;
+import com.example.healthyclub.util.CsvReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+//제휴 헬스장 회원을 CSV로 한꺼번에 등록
+//첫 줄은 헤더(UserRequestDTO 필드 이름, 순서 무관, userId / password 필수), 운동 종목은 "헬스|수영" 처럼 | 로 구분
+//한 번에 chunk-size 행씩 읽어서
+// 1) 비밀번호 해싱은 코어 수만큼의 ForkJoinPool에서 나눠 돌리고 (BCrypt가 행당 수십~수백 ms라 대부분의 시간이 여기)
+// 2) 해싱이 끝난 덩어리는 트랜잭션 하나에서 회원 / 운동 종목을 JDBC 배치로 넣는다
+//다음 덩어리 해싱과 이전 덩어리 저장이 겹쳐서 돌기 때문에 DB를 기다리는 동안에도 코어가 놀지 않는다
+//중복(이미 가입된 값, 파일 안에서 겹치는 값)이나 형식이 틀린 행은 건너뛰고 결과에 줄 번호와 이유를 남긴다
+//이미 가입된 값은 중복 확인 필터로 미리 거르지만, 필터가 모르는 값(다른 서버에서 방금 가입 등)은 DB 유니크 제약에 걸린다
+//그때는 그 덩어리만 한 행씩 다시 넣어서 겹치는 행만 건너뛴다
+//덩어리 단위로 커밋하므로 중간에 실패해도 앞 덩어리는 남고, 같은 파일로 다시 돌리면 이미 들어간 행은 중복으로 건너뛴다
+//요청 처리용 해싱 풀(PasswordHashExecutor)은 쓰지 않는다 (대기열이 가득 차서 로그인 / 가입이 503으로 거절되지 않도록)
+@Service
+@Slf4j
+public class UserImportService {
+
+    //결과에 남기는 건너뛴 행 이유의 최대 개수
+    private static final int MAX_ERRORS = 100;
+
+    private static final String INSERT_USER =
+            "INSERT INTO user (name, user_id, password, nickname, email, height, weight, gender, phone, age, join_date, update_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EXERCISE_TYPE =
+            "INSERT INTO exercise_type (user_entity_id, exercise_type) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder encoder;
+    private final UserAvailabilityService availability;
+    private final ExerciseTypeIndex exerciseTypeIndex;
+    private final int chunkSize;
+    private final int parallelism;
+
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             PasswordEncoder encoder,
+                             UserAvailabilityService availability,
+                             ExerciseTypeIndex exerciseTypeIndex,
+                             MeterRegistry registry,
+                             @Value("${healthyclub.user.import.chunk-size:500}") int chunkSize,
+                             @Value("${healthyclub.user.import.threads:0}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.encoder = encoder;
+        this.availability = availability;
+        this.exerciseTypeIndex = exerciseTypeIndex;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.importedRows = Counter.builder("user.import.rows").tag("result", "imported").register(registry);
+        this.rejectedRows = Counter.builder("user.import.rows").tag("result", "rejected").register(registry);
+    }
+
+    //CSV 전체를 등록하고 결과를 반환 (덩어리마다 진행 상황을 로그로 남김)
+    public UserImportResultDTO importCsv(Reader source) throws IOException {
+        long started = System.currentTimeMillis();
+        Progress progress = new Progress();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try (CsvReader csv = new CsvReader(source)) {
+            Columns columns = Columns.of(csv.readRecord());
+            Seen seen = new Seen();
+
+            Chunk pending = readChunk(csv, columns, seen, progress);
+            ForkJoinTask<Void> hashing = pool.submit(new HashTask(pending.users, 0, pending.users.size()));
+            while (!pending.users.isEmpty()) {
+                hashing.join();
+                Chunk hashed = pending;
+
+                //다음 덩어리를 해싱하는 동안 이번 덩어리를 저장
+                pending = readChunk(csv, columns, seen, progress);
+                hashing = pool.submit(new HashTask(pending.users, 0, pending.users.size()));
+
+                int written = write(hashed, progress);
+                progress.imported += written;
+                importedRows.increment(written);
+
+                long elapsed = Math.max(1, System.currentTimeMillis() - started);
+                log.info("user import - read : {}, imported : {}, rejected : {}, {} rows/s",
+                        progress.read, progress.imported, progress.rejected, progress.imported * 1000 / elapsed);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        UserImportResultDTO result = new UserImportResultDTO(progress.read, progress.imported, progress.rejected,
+                progress.errors, System.currentTimeMillis() - started);
+        log.info("user import finished - {}", result);
+        return result;
+    }
+
+    //검사를 통과한 행을 chunkSize개까지 읽음 (파일 끝이면 빈 덩어리)
+    private Chunk readChunk(CsvReader csv, Columns columns, Seen seen, Progress progress) throws IOException {
+        Chunk chunk = new Chunk(chunkSize);
+        List<String> record;
+        while (chunk.users.size() < chunkSize && (record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            progress.read++;
+            try {
+                UserEntity user = columns.toEntity(record);
+                //파일 안에서 겹치는 값을 먼저 보고, 이미 가입된 값은 블룸 필터 -> DB 순으로 확인
+                seen.require(user);
+                availability.requireAvailable(user, null);
+                seen.add(user);
+                chunk.users.add(user);
+                chunk.lines.add(csv.getLineNumber());
+            } catch (IllegalArgumentException e) {
+                progress.reject(csv.getLineNumber(), e.getMessage());
+                rejectedRows.increment();
+            }
+        }
+        return chunk;
+    }
+
+    //덩어리 하나를 트랜잭션 하나로 저장하고, 커밋된 뒤에 중복 확인 필터와 운동 종목 색인에 반영. 저장한 회원 수를 반환
+    //유니크 제약에 걸리면 덩어리 전체가 롤백되므로 한 행씩 따로 넣고, 걸린 행만 줄 번호와 함께 건너뛴다
+    private int write(Chunk chunk, Progress progress) {
+        List<UserEntity> written;
+        try {
+            insert(chunk.users);
+            written = chunk.users;
+        } catch (DataIntegrityViolationException e) {
+            written = new ArrayList<>(chunk.users.size());
+            for (int i = 0; i < chunk.users.size(); i++) {
+                UserEntity user = chunk.users.get(i);
+                try {
+                    insert(List.of(user));
+                    written.add(user);
+                } catch (DataIntegrityViolationException duplicate) {
+                    progress.reject(chunk.lines.get(i), availability.duplicated(duplicate).getMessage());
+                    rejectedRows.increment();
+                }
+            }
+        }
+
+        for (UserEntity user : written) {
+            availability.register(user);
+            exerciseTypeIndex.update(user.getId(), user.getExerciseType());
+        }
+        //해시는 저장했으니 메모리에 남기지 않음
+        for (UserEntity user : chunk.users) {
+            user.setPassword(null);
+        }
+        return written.size();
+    }
+
+    private void insert(List<UserEntity> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long[] ids = insertUsers(users);
+            List<Object[]> types = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                UserEntity user = users.get(i);
+                user.setId(ids[i]);
+                for (String type : user.getExerciseType()) {
+                    types.add(new Object[]{ids[i], type});
+                }
+            }
+            if (!types.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_EXERCISE_TYPE, types);
+            }
+        });
+    }
+
+    //회원을 배치 INSERT 하고 생성된 id를 행 순서대로 반환
+    private long[] insertUsers(List<UserEntity> users) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS)) {
+                for (UserEntity user : users) {
+                    ps.setString(1, user.getName());
+                    ps.setString(2, user.getUserId());
+                    ps.setString(3, user.getPassword());
+                    ps.setString(4, user.getNickname());
+                    ps.setString(5, user.getEmail());
+                    ps.setInt(6, user.getHeight());
+                    ps.setInt(7, user.getWeight());
+                    ps.setString(8, user.getGender());
+                    ps.setString(9, user.getPhone());
+                    ps.setInt(10, user.getAge());
+                    ps.setDate(11, Date.valueOf(user.getJoinDate()));
+                    ps.setDate(12, Date.valueOf(user.getUpdateDate()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                long[] ids = new long[users.size()];
+                int count = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next() && count < ids.length) {
+                        ids[count++] = keys.getLong(1);
+                    }
+                }
+                if (count != ids.length) {
+                    throw new IllegalStateException("생성된 회원 id 수가 맞지 않습니다 : " + count + " / " + ids.length);
+                }
+                return ids;
+            }
+        });
+    }
+
+    //비밀번호 해싱을 반씩 나눠서 ForkJoinPool에 분배 (행 하나가 충분히 무거우므로 몇 행 단위까지 쪼갬)
+    private final class HashTask extends RecursiveAction {
+        private static final int THRESHOLD = 4;
+
+        private final List<UserEntity> users;
+        private final int from;
+        private final int to;
+
+        private HashTask(List<UserEntity> users, int from, int to) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    UserEntity user = users.get(i);
+                    user.setPassword(encoder.encode(user.getPassword()));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new HashTask(users, from, mid), new HashTask(users, mid, to));
+        }
+    }
+
+    //헤더의 컬럼 이름 -> 위치
+    private static final class Columns {
+        private final Map<String, Integer> index;
+
+        private Columns(Map<String, Integer> index) {
+            this.index = index;
+        }
+
+        private static Columns of(List<String> header) throws IOException {
+            if (header == null) throw new IOException("빈 파일입니다.");
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                index.put(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+            }
+            if (!index.containsKey("userid") || !index.containsKey("password")) {
+                throw new IOException("헤더에 userId, password 컬럼이 필요합니다.");
+            }
+            return new Columns(index);
+        }
+
+        private UserEntity toEntity(List<String> record) {
+            UserEntity user = new UserEntity();
+            user.setUserId(required(record, "userid", "아이디"));
+            user.setPassword(required(record, "password", "비밀번호"));
+            user.setName(text(record, "name"));
+            user.setNickname(text(record, "nickname"));
+            user.setEmail(text(record, "email"));
+            user.setGender(text(record, "gender"));
+            user.setPhone(text(record, "phone"));
+            user.setHeight(number(record, "height"));
+            user.setWeight(number(record, "weight"));
+            user.setAge(number(record, "age"));
+
+            List<String> types = new ArrayList<>();
+            String joined = text(record, "exercisetype");
+            if (joined != null) {
+                for (String type : joined.split("\\|")) {
+                    String stripped = type.strip();
+                    if (!stripped.isEmpty() && !types.contains(stripped)) types.add(stripped);
+                }
+            }
+            user.setExerciseType(types);
+
+            LocalDate today = LocalDate.now();
+            user.setJoinDate(today);
+            user.setUpdateDate(today);
+            return user;
+        }
+
+        //값이 없거나 빈 칸이면 null
+        private String text(List<String> record, String column) {
+            Integer i = index.get(column);
+            if (i == null || i >= record.size()) return null;
+            String value = record.get(i).strip();
+            return value.isEmpty() ? null : value;
+        }
+
+        private String required(List<String> record, String column, String label) {
+            String value = text(record, column);
+            if (value == null) throw new IllegalArgumentException(label + "가 비어 있습니다.");
+            return value;
+        }
+
+        private int number(List<String> record, String column) {
+            String value = text(record, column);
+            if (value == null) return 0;
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " 값이 숫자가 아닙니다 : " + value);
+            }
+        }
+    }
+
+    //파일 안에서 이미 나온 아이디 / 닉네임 / 이메일 (대소문자 무시, 중복 확인 필터와 같은 기준)
+    private static final class Seen {
+        private final Set<String> userIds = new HashSet<>();
+        private final Set<String> nicknames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+
+        private void require(UserEntity user) {
+            if (contains(userIds, user.getUserId())) throw new IllegalArgumentException("파일 안에서 중복된 아이디입니다.");
+            if (contains(nicknames, user.getNickname())) throw new IllegalArgumentException("파일 안에서 중복된 닉네임입니다.");
+            if (contains(emails, user.getEmail())) throw new IllegalArgumentException("파일 안에서 중복된 이메일입니다.");
+        }
+
+        private void add(UserEntity user) {
+            if (user.getUserId() != null) userIds.add(key(user.getUserId()));
+            if (user.getNickname() != null) nicknames.add(key(user.getNickname()));
+            if (user.getEmail() != null) emails.add(key(user.getEmail()));
+        }
+
+        private static boolean contains(Set<String> seen, String value) {
+            return value != null && seen.contains(key(value));
+        }
+
+        private static String key(String value) {
+            return value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    //저장할 회원과 각 회원의 CSV 줄 번호
+    private static final class Chunk {
+        private final List<UserEntity> users;
+        private final List<Long> lines;
+
+        private Chunk(int capacity) {
+            this.users = new ArrayList<>(capacity);
+            this.lines = new ArrayList<>(capacity);
+        }
+    }
+
+    private static final class Progress {
+        private long read;
+        private long imported;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) errors.add(line + " : " + reason);
+        }
+    }
+}
@@ -1,39 +1,81 @@
 package com.example.healthyclub.service;
 
+import com.example.healthyclub.dto.UserSnapshot;
+import com.example.healthyclub.dto.UserSummaryDTO;
 import com.example.healthyclub.entity.UserEntity;
+import com.example.healthyclub.error.ServiceBusyException;
 import com.example.healthyclub.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.transaction.Transactional;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserService {
 
+    //회원 요약 정보를 한 번에 요청할 수 있는 최대 id 수 (/auth/summaries)
+    public static final int MAX_SUMMARY_IDS = 1000;
+    //IN 조건 하나에 넣는 최대 id 수 (이보다 많으면 나눠서 조회)
+    private static final int SUMMARY_CHUNK_SIZE = 500;
+
     private final UserRepository repository;
-    private final PasswordEncoder encoder;
+    //BCrypt 해싱은 요청 스레드가 아닌 전용 스레드풀에서 수행
+    private final PasswordHashExecutor hasher;
+    //조건부 GET(/auth/show/{id})에 쓰는 회원 정보 버전
+    private final ResourceVersions resourceVersions;
+    //탈퇴한 회원의 친구 관계를 메모리에서도 지우기 위함 (DB에서는 FK로 같이 지워짐)
+    private final FriendGraph friendGraph;
+    //친구 추천에 쓰는 운동 종목 색인
+    private final ExerciseTypeIndex exerciseTypeIndex;
+    //회원 정보 캐시 (id / 로그인 아이디)
+    private final UserCache userCache;
+    //아이디 / 닉네임 / 이메일 중복 확인 (블룸 필터)
+    private final UserAvailabilityService availability;
+    //해싱이 끝난 뒤 회원 정보와 운동 종목을 한 트랜잭션으로 수정
+    private final TransactionTemplate transactionTemplate;
 
     //회원가입하기
-    @Transactional
+    //해싱을 기다리는 동안 DB 커넥션을 잡고 있지 않도록 트랜잭션은 repository.save 에서만 연다
     public UserEntity create(UserEntity userEntity){
         if(userEntity == null){
             log.info("userEntity create is error!");
             throw new RuntimeException("UserEntity(Service) create Error");
         }
+        //이미 쓰고 있는 값이면 해싱하기 전에 실패 (필터가 모르는 값은 저장할 때 유니크 제약에 걸림)
+        availability.requireAvailable(userEntity, null);
         String rawPw = userEntity.getPassword();
-        userEntity.setPassword(encoder.encode(rawPw));
+        userEntity.setPassword(hasher.encode(rawPw));
 
-        return repository.save(userEntity);
+        UserEntity created;
+        try {
+            created = repository.save(userEntity);
+        } catch (DataIntegrityViolationException e) {
+            throw availability.duplicated(e);
+        }
+        availability.register(created);
+        userCache.invalidate(created.getId());
+        exerciseTypeIndex.update(created.getId(), userEntity.getExerciseType());
+        return created;
     }
 
-    //회원 정보 수정
-    @Transactional
+    //회원 정보 수정 (create와 마찬가지로 해싱 중에는 트랜잭션 밖)
+    //대상 회원은 호출하는 쪽에서 이미 확인했으므로 다시 읽지 않고 UPDATE 쿼리로 바로 고친다
     public UserEntity update(UserEntity userEntity){
 //        UserEntity target = repository.findById(userEntity.getId())
 //                .orElseThrow(() -> new IllegalArgumentException("우저 수정 실패, 대상 유저가 없습니다."));
@@ -43,15 +85,80 @@ public class UserService {
             log.info("userEntity update is error!");
             throw new RuntimeException("UserEntity(Service) update Error");
         }
+        availability.requireAvailable(userEntity, userEntity.getId());
         String rawPw = userEntity.getPassword();
-        userEntity.setPassword(encoder.encode(rawPw));
-        return repository.save(userEntity);
+        userEntity.setPassword(hasher.encode(rawPw));
+        Long id = userEntity.getId();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int updated = repository.updateProfile(id, userEntity.getName(), userEntity.getUserId(),
+                        userEntity.getPassword(), userEntity.getNickname(), userEntity.getEmail(),
+                        userEntity.getHeight(), userEntity.getWeight(), userEntity.getGender(), userEntity.getPhone(),
+                        userEntity.getAge(), userEntity.getUpdateDate());
+                if (updated == 0) {
+                    throw new IllegalArgumentException("우저 수정 실패, 대상 유저가 없습니다.");
+                }
+                repository.deleteExerciseTypes(id);
+                if (userEntity.getExerciseType() != null) {
+                    for (String type : userEntity.getExerciseType()) {
+                        repository.insertExerciseType(id, type);
+                    }
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw availability.duplicated(e);
+        }
+        availability.register(userEntity);
+        resourceVersions.profileChanged(id);
+        userCache.invalidate(id);
+        exerciseTypeIndex.update(id, userEntity.getExerciseType());
+        return userEntity;
     }
 
-    //회원 정보 읽기
+    //회원 정보 읽기 (캐시에 없을 때만 DB 조회, 반환된 엔티티는 수정해도 캐시에 영향 없음)
     public UserEntity show(Long id){
+        UserSnapshot user = find(id);
+        return (user != null) ? user.toEntity() : null;
+    }
+
+    //캐시된 회원 정보 (없는 회원이면 null). 여러 요청이 같이 쓰는 객체
+    public UserSnapshot find(Long id){
+        return userCache.get(id, () -> repository.findWithExerciseTypeById(id).map(UserSnapshot::new).orElse(null));
+    }
+
+    public UserSnapshot findByLoginId(String loginId){
+        return userCache.getByLoginId(loginId,
+                () -> repository.findWithExerciseTypeByUserId(loginId).map(UserSnapshot::new).orElse(null));
+    }
 
-        return repository.findById(id).orElse(null);
+    //여러 회원의 요약 정보 (요청한 순서대로, 없는 회원은 빠짐)
+    //캐시에 있는 회원은 캐시에서, 나머지는 IN 조건 쿼리 한 번으로 읽고, id가 많으면 SUMMARY_CHUNK_SIZE개씩 나눠서 조회
+    public List<UserSummaryDTO> summaries(Collection<Long> ids){
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+
+        Map<Long, UserSummaryDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            UserSnapshot cached = userCache.peek(id);
+            if (cached != null) {
+                found.put(id, new UserSummaryDTO(id, cached.getNickname(), new ArrayList<>(cached.getExerciseType())));
+            } else {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += SUMMARY_CHUNK_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(missing.size(), from + SUMMARY_CHUNK_SIZE));
+            for (Object[] row : repository.findSummaryRows(chunk)) {
+                UserSummaryDTO summary = found.computeIfAbsent((Long) row[0],
+                        id -> new UserSummaryDTO(id, (String) row[1], new ArrayList<>()));
+                if (row[2] != null) summary.getExerciseType().add((String) row[2]);
+            }
+        }
+        return distinct.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     //회원 탈퇴
@@ -60,18 +167,26 @@ public class UserService {
         UserEntity target = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Userservice delete error"));
         repository.delete(target);
+        resourceVersions.profileChanged(id);
+        userCache.invalidate(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                friendGraph.removeUser(id);
+                exerciseTypeIndex.remove(id);
+            }
+        });
 
         return target;
     }
 
-    //loginId 통해서 userEntity 찾아내기
-    @Transactional
+    //loginId 통해서 userEntity 찾아내기 (캐시에 없을 때만 DB 조회)
     public UserEntity getUser(String loginId){
-        return repository.getUserByUserId(loginId);
+        UserSnapshot user = findByLoginId(loginId);
+        return (user != null) ? user.toEntity() : null;
     }
 
-    //로그인할 때 검증하기
-    @Transactional
+    //로그인할 때 검증하기 (조회만 하므로 해싱 중에 커넥션을 잡고 있지 않도록 트랜잭션 없이)
     public UserEntity validateLogin(final String loginId, final String password){
         //회원가입을 했는가?
         UserEntity user = getUser(loginId);
@@ -79,9 +194,30 @@ public class UserService {
         if (user == null) throw new RuntimeException("가입된 회원이 아닙니다.");
 
         //패스워드가 일치하는가?
-        if (!encoder.matches(password, user.getPassword())){
+        if (!hasher.matches(password, user.getPassword())){
             throw new RuntimeException("비밀번호가 틀립니다.");
         }
+
+        //저장된 해시의 strength가 현재 설정과 다르면 이번 로그인에서 다시 해싱해둔다
+        if (hasher.needsRehash(user.getPassword())){
+            rehash(user, password);
+        }
         return user; //로그인 성공시 그 회원의 정보를 보여준다.
     }
+
+    //비밀번호 재해싱. 실패해도(해싱 대기열이 가득 찬 경우 등) 로그인은 그대로 성공시키고 다음 로그인 때 다시 시도
+    private void rehash(UserEntity user, String rawPassword){
+        try {
+            String oldPw = user.getPassword();
+            String newPw = hasher.encode(rawPassword);
+            if (repository.updatePassword(user.getId(), oldPw, newPw) == 1){
+                user.setPassword(newPw);
+                resourceVersions.profileChanged(user.getId());
+                userCache.invalidate(user.getId());
+                log.info("password rehashed - id : {}", user.getId());
+            }
+        } catch (ServiceBusyException e){
+            log.debug("password rehash skipped - id : {}", user.getId());
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package com.example.healthyclub.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+//개수 제한과 만료 시각이 있는 캐시 저장소 (여러 캐시가 같이 씀, thread-safe)
+//엔트리마다 만료 시각을 두고 지난 엔트리는 없는 것으로 본다 (만료 없이 넣으면 용량이 찰 때까지 남음)
+//용량이 찼을 때 : 만료된 것부터 지우고, 그래도 부족하면 임의로 10% 정도 지운다 (사용 순서는 따로 관리하지 않음)
+//맵이 스스로 지운 엔트리(만료 / 용량)는 onEvict로 알려준다. remove로 지운 것은 알리지 않음
+public class BoundedTtlMap<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final BiConsumer<K, V> onEvict;
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlMap(int maxSize) {
+        this(maxSize, (key, value) -> { });
+    }
+
+    public BoundedTtlMap(int maxSize, BiConsumer<K, V> onEvict) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize는 1 이상이어야 합니다 : " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.onEvict = onEvict;
+    }
+
+    //만료되지 않은 값, 없으면 null (만료된 엔트리는 이때 지움)
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) evicted(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    //expiresAt(ms)이 지나면 꺼내지지 않는다
+    public void put(K key, V value, long expiresAt) {
+        makeRoom();
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    //만료 없이 저장
+    public void put(K key, V value) {
+        put(key, value, Long.MAX_VALUE);
+    }
+
+    //없을 때만(만료된 것도 없는 것으로 봄) 만료 없이 저장. 이미 있던 값, 저장했으면 null
+    public V putIfAbsent(K key, V value) {
+        makeRoom();
+        Entry<V> created = new Entry<>(value, Long.MAX_VALUE);
+        long now = System.currentTimeMillis();
+        Entry<V> current = entries.compute(key, (k, e) -> e == null || e.expiresAt <= now ? created : e);
+        return current == created ? null : current.value;
+    }
+
+    //지운 값 (만료된 것이어도), 없으면 null
+    public V remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        return removed == null ? null : removed.value;
+    }
+
+    //지금 값이 value일 때만 지움
+    public boolean remove(K key, V value) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && entry.value == value && entries.remove(key, entry);
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    //만료됐지만 아직 지워지지 않은 엔트리도 포함
+    public int size() {
+        return entries.size();
+    }
+
+    //맵이 스스로 지운 엔트리 수 (만료 / 용량)
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void makeRoom() {
+        if (entries.size() < maxSize) return;
+
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            if (e.getValue().expiresAt <= now) {
+                it.remove();
+                evicted(e.getKey(), e.getValue());
+            }
+        }
+        int overflow = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        it = entries.entrySet().iterator();
+        while (overflow-- > 0 && it.hasNext()) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            it.remove();
+            evicted(e.getKey(), e.getValue());
+        }
+    }
+
+    private void evicted(K key, Entry<V> entry) {
+        evictions.increment();
+        onEvict.accept(key, entry.value);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
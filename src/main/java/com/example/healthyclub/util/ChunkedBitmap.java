@@ -0,0 +1,82 @@
+package com.example.healthyclub.util;
+
+import java.util.Arrays;
+
+//음이 아닌 int(유저 id 등) 집합을 나타내는 비트맵
+//65536개 단위 블록으로 나눠서 원소가 하나라도 있는 블록만 long[1024]로 만들고, 비면 다시 버린다
+//-> id가 띄엄띄엄 있어도 빈 구간은 메모리를 쓰지 않고, 교집합 / 개수 계산은 64비트 단어 단위로 한다
+//thread-safe 하지 않으므로 바깥에서 잠가서 사용
+public class ChunkedBitmap {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int WORDS_PER_CHUNK = 1 << (CHUNK_BITS - 6);
+
+    private long[][] chunks = new long[0][];
+    private int[] chunkCardinality = new int[0];
+    private int cardinality;
+
+    public boolean add(int value) {
+        int chunk = value >>> CHUNK_BITS;
+        if (chunk >= chunks.length) {
+            int length = Math.max(chunk + 1, chunks.length * 2);
+            chunks = Arrays.copyOf(chunks, length);
+            chunkCardinality = Arrays.copyOf(chunkCardinality, length);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new long[WORDS_PER_CHUNK];
+        }
+        long[] words = chunks[chunk];
+        int word = (value >>> 6) & (WORDS_PER_CHUNK - 1);
+        long bit = 1L << value;
+        if ((words[word] & bit) != 0) return false;
+        words[word] |= bit;
+        chunkCardinality[chunk]++;
+        cardinality++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int chunk = value >>> CHUNK_BITS;
+        if (chunk >= chunks.length || chunks[chunk] == null) return false;
+        long[] words = chunks[chunk];
+        int word = (value >>> 6) & (WORDS_PER_CHUNK - 1);
+        long bit = 1L << value;
+        if ((words[word] & bit) == 0) return false;
+        words[word] &= ~bit;
+        cardinality--;
+        if (--chunkCardinality[chunk] == 0) {
+            chunks[chunk] = null;
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return (word(value >>> 6) & (1L << value)) != 0;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    //전체 단어 개수 (마지막 블록까지)
+    public int wordCount() {
+        return chunks.length * WORDS_PER_CHUNK;
+    }
+
+    //index번째 64비트 단어 (값 index * 64 ~ index * 64 + 63). 블록이 없으면 0
+    public long word(int index) {
+        int chunk = index >>> (CHUNK_BITS - 6);
+        if (chunk >= chunks.length || chunks[chunk] == null) return 0;
+        return chunks[chunk][index & (WORDS_PER_CHUNK - 1)];
+    }
+
+    //index번째 단어가 들어있는 블록이 비어 있는지 (비어 있으면 그 블록은 건너뛸 수 있음)
+    public boolean isChunkEmpty(int wordIndex) {
+        int chunk = wordIndex >>> (CHUNK_BITS - 6);
+        return chunk >= chunks.length || chunks[chunk] == null;
+    }
+
+    public static int wordsPerChunk() {
+        return WORDS_PER_CHUNK;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.healthyclub.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+//CSV를 한 행씩 읽음 (RFC 4180 - 쉼표 구분, 큰따옴표로 감싼 칸 안의 쉼표 / 줄바꿈 / "" 허용)
+//파일 전체를 메모리에 올리지 않으므로 행이 많아도 힙 사용량은 한 행 크기만큼만 든다
+//첫 칸 앞의 UTF-8 BOM(엑셀에서 저장한 파일)은 건너뜀
+public class CsvReader implements Closeable {
+
+    private static final int BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    //다음에 읽을 문자 (-1 : 파일 끝)
+    private int next;
+    private boolean started;
+    //지금 행이 시작된 줄 번호 (1부터)
+    private long lineNumber;
+    private long line = 1;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    //다음 행의 칸 목록, 파일 끝이면 null
+    public List<String> readRecord() throws IOException {
+        if (!started) {
+            started = true;
+            next = reader.read();
+            if (next == BOM) next = reader.read();
+        }
+        if (next == -1) return null;
+
+        lineNumber = line;
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean wasQuoted = false;
+
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException(lineNumber + "번째 줄 : 닫히지 않은 큰따옴표");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') read();
+                if (c != -1) line++;
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    //마지막으로 읽은 행이 시작된 줄 번호 (오류 메시지용)
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int peek() {
+        return next;
+    }
+
+    private int read() throws IOException {
+        int c = next;
+        if (c != -1) next = reader.read();
+        return c;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.healthyclub.util;
+
+import java.util.Arrays;
+
+//long 전용 해시 셋 (오픈 어드레싱, 선형 탐사)
+//Set<Long>과 달리 원소마다 Long 객체 / 노드를 만들지 않고 long[] 하나에 저장해서 메모리를 적게 쓴다
+//0은 빈 칸 표시로 쓰므로 따로 플래그로 관리. thread-safe 하지 않으므로 바깥에서 잠가서 사용
+public class LongHashSet {
+
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] table;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this.table = new long[MIN_CAPACITY];
+    }
+
+    //새로 들어갔으면 true
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        //최대 50%만 채움
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != 0) {
+            if (table[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) return hasZero;
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != 0) {
+            if (table[i] == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    //있어서 지웠으면 true
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!hasZero) return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != value) {
+            if (table[i] == 0) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = 0;
+        size--;
+
+        //뒤에 이어진 원소들을 당겨서 탐사 경로가 끊기지 않게 함 (묘비 없이 삭제)
+        int hole = i;
+        i = (i + 1) & mask;
+        while (table[i] != 0) {
+            int home = mix(table[i]) & mask;
+            //home이 (hole, i] 범위 밖이면 hole로 옮길 수 있다
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                table[hole] = table[i];
+                table[i] = 0;
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    //모든 원소를 오름차순 배열로 반환
+    public long[] toSortedArray() {
+        long[] result = new long[size];
+        int n = 0;
+        if (hasZero) result[n++] = 0;
+        for (long value : table) {
+            if (value != 0) result[n++] = value;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value == 0) continue;
+            int i = mix(value) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = value;
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
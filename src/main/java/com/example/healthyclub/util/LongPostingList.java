@@ -0,0 +1,81 @@
+package com.example.healthyclub.util;
+
+import java.util.Arrays;
+
+//정렬된 long id 목록 (역색인의 포스팅 리스트)
+//박싱 없이 long[] 하나로 들고 있고, id가 보통 증가하는 순서로 들어오므로 추가는 대부분 맨 뒤에 붙이기만 하면 된다
+//thread-safe 하지 않으므로 바깥에서 잠가서 사용
+public class LongPostingList {
+
+    private long[] ids;
+    private int size;
+
+    public LongPostingList() {
+        this.ids = new long[4];
+    }
+
+    public void add(long id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return;
+            insertAt(-pos - 1, id);
+            return;
+        }
+        ensureCapacity(size + 1);
+        ids[size++] = id;
+    }
+
+    public boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) return false;
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(int index) {
+        return ids[index];
+    }
+
+    //index 이상에서 처음으로 id 이상이 되는 위치 (갤로핑 탐색 : 교집합을 구할 때 짧은 목록 기준으로 긴 목록을 건너뛰며 찾음)
+    public int seek(long id, int from) {
+        int bound = 1;
+        while (from + bound < size && ids[from + bound] < id) {
+            bound <<= 1;
+        }
+        int lo = from + (bound >> 1);
+        int hi = Math.min(size, from + bound + 1);
+        int pos = Arrays.binarySearch(ids, lo, hi, id);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    //from 이하에서 id 이하인 마지막 위치, 없으면 -1 (seek를 뒤에서부터 하는 것 : 큰 id부터 교집합을 구할 때 사용)
+    public int seekBack(long id, int from) {
+        if (from < 0) return -1;
+        int bound = 1;
+        while (from - bound >= 0 && ids[from - bound] > id) {
+            bound <<= 1;
+        }
+        int lo = Math.max(0, from - bound);
+        int hi = from - (bound >> 1) + 1;
+        int pos = Arrays.binarySearch(ids, lo, hi, id);
+        return pos >= 0 ? pos : -pos - 2;
+    }
+
+    private void insertAt(int pos, long id) {
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(capacity, ids.length + (ids.length >> 1)));
+        }
+    }
+}
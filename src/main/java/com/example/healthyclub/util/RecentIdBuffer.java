@@ -0,0 +1,67 @@
+package com.example.healthyclub.util;
+
+import java.util.Arrays;
+
+//가장 큰(최신) id를 capacity개까지만 정렬해서 들고 있는 버퍼 (피드 타임라인용)
+//id가 조금 뒤섞여서 들어와도 정렬을 유지하고, 같은 id는 한 번만 들어간다. 가득 차면 가장 오래된(작은) id가 빠진다
+//thread-safe (메소드마다 잠금)
+public class RecentIdBuffer {
+
+    private final long[] ids;
+    private int size;
+
+    public RecentIdBuffer(int capacity) {
+        this.ids = new long[Math.max(1, capacity)];
+    }
+
+    public synchronized void add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) return;
+        pos = -pos - 1;
+        if (size == ids.length) {
+            //가장 작은 id보다도 작으면 버림
+            if (pos == 0) return;
+            //맨 앞(가장 작은 id)을 버리고 한 칸씩 당김
+            System.arraycopy(ids, 1, ids, 0, pos - 1);
+            ids[pos - 1] = id;
+            return;
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+
+    public void addAll(long[] values) {
+        for (long value : values) {
+            add(value);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) return;
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+    }
+
+    //before보다 작은 id를 큰 것부터 최대 limit개 (before가 Long.MAX_VALUE면 처음부터)
+    public synchronized long[] before(long before, int limit) {
+        int pos = Arrays.binarySearch(ids, 0, size, before);
+        int end = (pos >= 0) ? pos : -pos - 1;
+        int count = Math.max(0, Math.min(limit, end));
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ids[end - 1 - i];
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    //가득 찼으면 더 오래된 id가 밀려났을 수 있다
+    public synchronized boolean isFull() {
+        return size == ids.length;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.healthyclub.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//자유 형식 루틴 본문에서 운동 이름, 세트, 횟수, 무게를 뽑아내는 파서
+//줄바꿈 / 쉼표 / 세미콜론 / 슬래시로 나눈 한 조각을 운동 하나로 보고, 숫자+단위를 뺀 나머지 글자를 운동 이름으로 사용
+//  "스쿼트 100kg 5x5"            -> 스쿼트, 5세트, 5회, 100kg
+//  "벤치 프레스 3세트 10회 60kg"  -> 벤치프레스, 3세트, 10회, 60kg
+//  "플랭크"                       -> 플랭크, 세트/횟수/무게 없음
+//같은 운동이 여러 번 나오면 세트 수와 볼륨을 합친다
+public final class RoutineParser {
+
+    //운동 이름 최대 길이 (통계 테이블 컬럼 길이)
+    public static final int MAX_EXERCISE_LENGTH = 50;
+
+    private static final double KG_PER_LB = 0.45359237;
+
+    private static final Pattern SEGMENT_SEPARATOR = Pattern.compile("[\\n\\r,;/]+");
+    private static final Pattern WEIGHT = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(kg|킬로|키로|lbs|lb|파운드)");
+    private static final Pattern SETS_X_REPS = Pattern.compile("(\\d+)\\s*[x×*]\\s*(\\d+)");
+    private static final Pattern SETS = Pattern.compile("(\\d+)\\s*(세트|sets|set)");
+    private static final Pattern REPS = Pattern.compile("(\\d+)\\s*(회|개|번|reps|rep)");
+    //운동 이름에서 버릴 글자 (글자가 아닌 것)
+    private static final Pattern NOT_LETTER = Pattern.compile("[^\\p{L}]+");
+
+    private RoutineParser() {
+    }
+
+    //운동 하나의 기록
+    public static final class Exercise {
+        private final String name;
+        private final int sets;
+        private final int reps;
+        //모든 세트의 횟수 * 무게(kg) 합
+        private final double volume;
+
+        private Exercise(String name, int sets, int reps, double volume) {
+            this.name = name;
+            this.sets = sets;
+            this.reps = reps;
+            this.volume = volume;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSets() {
+            return sets;
+        }
+
+        //모든 세트의 횟수 합
+        public int getReps() {
+            return reps;
+        }
+
+        public double getVolume() {
+            return volume;
+        }
+
+        private Exercise plus(Exercise other) {
+            return new Exercise(name, sets + other.sets, reps + other.reps, volume + other.volume);
+        }
+    }
+
+    //본문을 운동별 기록으로 변환 (운동 이름을 찾을 수 없는 조각은 버림)
+    public static List<Exercise> parse(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        Map<String, Exercise> byName = new LinkedHashMap<>();
+        for (String segment : SEGMENT_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            Exercise exercise = parseSegment(segment);
+            if (exercise != null) {
+                byName.merge(exercise.name, exercise, Exercise::plus);
+            }
+        }
+        return new ArrayList<>(byName.values());
+    }
+
+    //정규화된 운동 이름 (소문자, 글자만 남김) - 검색 조건으로 받은 이름도 같은 규칙으로 바꿔서 비교
+    public static String normalizeName(String name) {
+        if (name == null) return "";
+        String normalized = NOT_LETTER.matcher(name.toLowerCase(Locale.ROOT)).replaceAll("");
+        return normalized.length() > MAX_EXERCISE_LENGTH ? normalized.substring(0, MAX_EXERCISE_LENGTH) : normalized;
+    }
+
+    private static Exercise parseSegment(String segment) {
+        StringBuilder rest = new StringBuilder(segment);
+        double weight = 0;
+        int sets = 0;
+        int reps = 0;
+
+        Matcher m = WEIGHT.matcher(rest);
+        if (m.find()) {
+            weight = Double.parseDouble(m.group(1));
+            if (m.group(2).startsWith("lb") || m.group(2).equals("파운드")) {
+                weight *= KG_PER_LB;
+            }
+            blank(rest, m);
+        }
+        m = SETS_X_REPS.matcher(rest);
+        if (m.find()) {
+            sets = Integer.parseInt(m.group(1));
+            reps = Integer.parseInt(m.group(2));
+            blank(rest, m);
+        }
+        m = SETS.matcher(rest);
+        if (m.find()) {
+            sets = Integer.parseInt(m.group(1));
+            blank(rest, m);
+        }
+        m = REPS.matcher(rest);
+        if (m.find()) {
+            reps = Integer.parseInt(m.group(1));
+            blank(rest, m);
+        }
+
+        String name = normalizeName(rest.toString());
+        if (name.isEmpty()) {
+            return null;
+        }
+        //횟수만 적었으면 1세트
+        if (sets == 0 && reps > 0) {
+            sets = 1;
+        }
+        int totalReps = sets * reps;
+        return new Exercise(name, sets, totalReps, totalReps * weight);
+    }
+
+    //찾은 부분을 공백으로 바꿔서 다음 패턴이나 운동 이름에 다시 잡히지 않게 함
+    private static void blank(StringBuilder sb, Matcher m) {
+        for (int i = m.start(); i < m.end(); i++) {
+            sb.setCharAt(i, ' ');
+        }
+    }
+}
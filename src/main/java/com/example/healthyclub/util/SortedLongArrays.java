@@ -0,0 +1,87 @@
+package com.example.healthyclub.util;
+
+import java.util.Arrays;
+
+//정렬된(오름차순, 중복 없음) long[] 끼리의 교집합
+//크기가 비슷하면 두 배열을 한 번씩 훑고(merge), 한쪽이 훨씬 작으면 작은 쪽 원소마다 큰 쪽에서 지수 탐색(galloping)
+public final class SortedLongArrays {
+
+    //작은 쪽 * GALLOP_RATIO < 큰 쪽이면 galloping
+    private static final int GALLOP_RATIO = 32;
+
+    private SortedLongArrays() {
+    }
+
+    public static long[] intersect(long[] a, long[] b) {
+        long[] small = (a.length <= b.length) ? a : b;
+        long[] large = (small == a) ? b : a;
+        long[] result = new long[small.length];
+        int n = 0;
+
+        if ((long) small.length * GALLOP_RATIO < large.length) {
+            int from = 0;
+            for (long value : small) {
+                from = seek(large, value, from);
+                if (from == large.length) break;
+                if (large[from] == value) result[n++] = value;
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < small.length && j < large.length) {
+                if (small[i] < large[j]) i++;
+                else if (small[i] > large[j]) j++;
+                else {
+                    result[n++] = small[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return (n == result.length) ? result : Arrays.copyOf(result, n);
+    }
+
+    public static int intersectionSize(long[] a, long[] b) {
+        long[] small = (a.length <= b.length) ? a : b;
+        long[] large = (small == a) ? b : a;
+        int n = 0;
+
+        if ((long) small.length * GALLOP_RATIO < large.length) {
+            int from = 0;
+            for (long value : small) {
+                from = seek(large, value, from);
+                if (from == large.length) break;
+                if (large[from] == value) n++;
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < small.length && j < large.length) {
+                if (small[i] < large[j]) i++;
+                else if (small[i] > large[j]) j++;
+                else {
+                    n++;
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return n;
+    }
+
+    public static boolean contains(long[] sorted, long value) {
+        return Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    //from 이후에서 value 이상인 첫 위치 (1, 2, 4, ... 칸씩 건너뛰며 범위를 찾은 뒤 이분 탐색)
+    static int seek(long[] sorted, long value, int from) {
+        int bound = 1;
+        while (from + bound < sorted.length && sorted[from + bound] < value) {
+            bound <<= 1;
+        }
+        int lo = from + (bound >> 1);
+        int hi = Math.min(sorted.length, from + bound + 1);
+        int pos = Arrays.binarySearch(sorted, lo, hi, value);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.healthyclub.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//같은 내용의 문자열을 하나의 인스턴스로 모아주는 크기 제한 인터너
+//DB에서 읽을 때마다 새로 만들어지는 같은 문자열(복사된 루틴 본문 등)을 캐시 등에 오래 들고 있을 때 힙을 아끼기 위해 사용
+public class StringInterner {
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public StringInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    //value와 같은 내용의 대표 인스턴스를 반환
+    public String intern(String value) {
+        if (value == null) return null;
+        String existing = pool.get(value);
+        if (existing != null) return existing;
+
+        if (pool.size() >= maxSize) {
+            //가득 차면 임의로 절반 정도 비운다 (비워진 문자열은 다음에 들어올 때 다시 대표가 됨)
+            Iterator<String> it = pool.keySet().iterator();
+            for (int i = maxSize / 2; i > 0 && it.hasNext(); i--) {
+                it.next();
+                it.remove();
+            }
+        }
+        existing = pool.putIfAbsent(value, value);
+        return (existing != null) ? existing : value;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.healthyclub.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//키(로그인 아이디, IP 등)별 토큰 버킷
+//키를 해시해서 stripe 하나에만 락을 걸기 때문에 서로 다른 키끼리는 거의 경합하지 않는다
+//stripe마다 최근 사용순 LinkedHashMap을 쓰고, 오래 안 쓴 버킷과 용량을 넘는 버킷은 버린다 -> 키가 무한히 들어와도 메모리가 일정
+public class StripedTokenBucketLimiter {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int maxKeysPerStripe;
+
+    private final double capacity;
+    //나노초당 충전되는 토큰 수
+    private final double refillPerNano;
+    //이 시간 동안 안 쓰이면 버킷이 가득 찬 상태와 같으므로 지워도 된다
+    private final long idleNanos;
+
+    //capacity : 버킷 크기(연속으로 허용되는 횟수), refillPerSecond : 초당 충전량, maxKeys : 최대로 기억할 키 개수
+    public StripedTokenBucketLimiter(int capacity, double refillPerSecond, int maxKeys) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(64, maxKeys / 16)));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = stripeCount - 1;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.idleNanos = (long) Math.ceil(capacity / refillPerNano);
+    }
+
+    //토큰 하나를 사용. 허용되면 0, 거절되면 다음 토큰이 생길 때까지 남은 나노초를 반환
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        synchronized (stripe) {
+            stripe.evictIdle(now);
+
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.refill(now);
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / refillPerNano);
+        }
+    }
+
+    //현재 기억하고 있는 키 개수 (대략적인 값)
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private final class Stripe {
+        //accessOrder = true : 가장 오래 안 쓴 버킷이 맨 앞
+        private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<String, Bucket>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxKeysPerStripe;
+            }
+        };
+
+        private void evictIdle(long now) {
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().updatedAt < idleNanos) break;
+                it.remove();
+            }
+        }
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedAt = now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * refillPerNano);
+            updatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.healthyclub.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//키(유저 id 등)별 변경 버전과 마지막 변경 시각
+//키를 해시해서 정해진 개수의 칸(stripe)에만 기록하므로 키가 아무리 많아도 메모리가 일정하다
+//다른 키와 칸을 같이 쓰면 그 키의 버전도 같이 올라가지만, "바뀌지 않았는데 바뀌었다고 하는" 쪽으로만 틀리므로 캐시 검증에 써도 안전하다
+public class StripedVersions {
+
+    private final AtomicLongArray versions;
+    private final AtomicLongArray modifiedAt;
+    private final int mask;
+
+    //stripes는 2의 거듭제곱으로 올림, since : 아직 바뀐 적 없는 키의 마지막 변경 시각(ms)
+    public StripedVersions(int stripes, long since) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.versions = new AtomicLongArray(size);
+        this.modifiedAt = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            modifiedAt.set(i, since);
+        }
+    }
+
+    //key가 바뀌었음을 기록
+    //마지막 변경 시각은 항상 이전 값보다 1초 이상 뒤로 잡는다 (HTTP 날짜는 초 단위라 같은 초 안의 두 변경을 구분할 수 없으므로)
+    public void bump(long key, long now) {
+        int i = index(key);
+        versions.incrementAndGet(i);
+        modifiedAt.accumulateAndGet(i, now, (prev, n) -> Math.max(n, prev / 1000 * 1000 + 1000));
+    }
+
+    public long version(long key) {
+        return versions.get(index(key));
+    }
+
+    public long lastModified(long key) {
+        return modifiedAt.get(index(key));
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.healthyclub.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    @DisplayName("저장된 해시에서 strength를 읽어오는가")
+    void strengthOf(){
+        assertEquals(5, CalibratedBCryptPasswordEncoder.strengthOf(new BCryptPasswordEncoder(5).encode("pw")));
+        assertEquals(-1, CalibratedBCryptPasswordEncoder.strengthOf("plain"));
+        assertEquals(-1, CalibratedBCryptPasswordEncoder.strengthOf(null));
+    }
+
+    @Test
+    @DisplayName("strength가 다른 해시만 재해싱 대상인가")
+    void upgradeEncoding(){
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("pw")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pw")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("pw")));
+    }
+
+    @Test
+    @DisplayName("보정 결과가 범위 안에 있는가")
+    void calibrate(){
+        CalibratedBCryptPasswordEncoder encoder = CalibratedBCryptPasswordEncoder.calibrate(1, 4, 6);
+
+        assertTrue(encoder.getStrength() >= 4 && encoder.getStrength() <= 6);
+        assertTrue(encoder.matches("pw", encoder.encode("pw")));
+    }
+}
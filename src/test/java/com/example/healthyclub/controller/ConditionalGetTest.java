@@ -0,0 +1,53 @@
+package com.example.healthyclub.controller;
+
+import com.example.healthyclub.service.ResourceVersions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetTest {
+
+    private final ResourceVersions versions = new ResourceVersions();
+
+    @Test
+    @DisplayName("Accept로 응답 형식을 고르는가 (기본 / 못 고르면 json)")
+    void format(){
+        assertEquals("json", ConditionalGet.format(request(null)));
+        assertEquals("json", ConditionalGet.format(request("*/*")));
+        assertEquals("json", ConditionalGet.format(request("application/json, application/cbor")));
+        assertEquals("cbor", ConditionalGet.format(request("application/cbor")));
+        assertEquals("smile", ConditionalGet.format(request("application/x-jackson-smile, */*;q=0.1")));
+        assertEquals("cbor", ConditionalGet.format(request("application/json;q=0.5, application/cbor")));
+        assertEquals("json", ConditionalGet.format(request("application/cbor;q=0, */*")));
+        assertEquals("json", ConditionalGet.format(request("잘못된 헤더")));
+    }
+
+    @Test
+    @DisplayName("JSON ETag로 CBOR를 요청하면 304가 아니고, 같은 형식이면 304, 둘 다 Vary: Accept")
+    void etagPerFormat(){
+        String jsonETag = versions.routinesETag(1L, "json");
+        assertNotEquals(jsonETag, versions.routinesETag(1L, "cbor"));
+
+        ServletWebRequest cbor = request("application/cbor");
+        ((MockHttpServletRequest) cbor.getRequest()).addHeader(HttpHeaders.IF_NONE_MATCH, jsonETag);
+        assertFalse(ConditionalGet.notModified(cbor, versions.routinesETag(1L, ConditionalGet.format(cbor)), -1));
+        assertEquals(HttpHeaders.ACCEPT, cbor.getResponse().getHeader(HttpHeaders.VARY));
+
+        ServletWebRequest json = request("application/json");
+        ((MockHttpServletRequest) json.getRequest()).addHeader(HttpHeaders.IF_NONE_MATCH, jsonETag);
+        assertTrue(ConditionalGet.notModified(json, versions.routinesETag(1L, ConditionalGet.format(json)), -1));
+        assertEquals(304, ((MockHttpServletResponse) json.getResponse()).getStatus());
+        assertEquals(HttpHeaders.ACCEPT, json.getResponse().getHeader(HttpHeaders.VARY));
+    }
+
+    private static ServletWebRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/routine/1");
+        if (accept != null) request.addHeader(HttpHeaders.ACCEPT, accept);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
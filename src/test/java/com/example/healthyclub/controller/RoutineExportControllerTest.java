@@ -0,0 +1,76 @@
+package com.example.healthyclub.controller;
+
+import com.example.healthyclub.dto.RoutineCursor;
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.service.RoutineService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoutineExportControllerTest {
+
+    private final RoutineService routineService = mock(RoutineService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RoutineExportController controller = new RoutineExportController(routineService, objectMapper, 60_000);
+
+    @Test
+    @DisplayName("키셋 페이지를 이어 읽어서 한 줄에 루틴 하나씩 쓰는가")
+    void streamsPages() throws Exception {
+        int size = RoutineService.MAX_PAGE_SIZE;
+        List<RoutineDTO> first = new ArrayList<>();
+        first.add(new RoutineDTO(1L, 7L, null, "날짜 없는 루틴"));
+        for (long id = 2; id <= size; id++) {
+            first.add(new RoutineDTO(id, 7L, LocalDate.of(2023, 1, 1), "스쿼트 5x5 100kg"));
+        }
+        List<RoutineDTO> second = List.of(new RoutineDTO(1000L, 7L, LocalDate.of(2023, 2, 1), "줄\n바꿈 \"따옴표\""));
+        when(routineService.showPage(eq(7L), isNull(), isNull(), isNull(), eq(size))).thenReturn(first);
+        when(routineService.showPage(eq(7L), isNull(), isNull(), any(RoutineCursor.class), eq(size))).thenReturn(second);
+
+        ResponseEntity<StreamingResponseBody> response = controller.export(7L, new MockHttpServletRequest());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(size + 1, lines.length);
+
+        JsonNode undated = objectMapper.readTree(lines[0]);
+        assertEquals(1L, undated.get("id").asLong());
+        assertTrue(undated.get("date").isNull());
+
+        JsonNode last = objectMapper.readTree(lines[size]);
+        assertEquals(1000L, last.get("id").asLong());
+        assertEquals(7L, last.get("userid").asLong());
+        assertEquals("2023-02-01", last.get("date").asText());
+        assertEquals("줄\n바꿈 \"따옴표\"", last.get("routine").asText());
+
+        //두 번째 페이지는 첫 페이지 마지막 루틴 뒤에서부터
+        verify(routineService).showPage(eq(7L), isNull(), isNull(),
+                argThat(c -> c != null && c.getId() == size && LocalDate.of(2023, 1, 1).equals(c.getDate())), eq(size));
+    }
+
+    @Test
+    @DisplayName("루틴이 없으면 빈 응답")
+    void empty() throws Exception {
+        when(routineService.showPage(anyLong(), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        controller.export(7L, new MockHttpServletRequest()).getBody().writeTo(out);
+
+        assertEquals(0, out.size());
+        verify(routineService, times(1)).showPage(anyLong(), any(), any(), any(), anyInt());
+    }
+}
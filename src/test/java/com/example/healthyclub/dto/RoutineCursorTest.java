@@ -0,0 +1,36 @@
+package com.example.healthyclub.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineCursorTest {
+
+    @Test
+    @DisplayName("\"날짜_id\" 와 날짜 없는 \"_id\" 를 읽고 같은 문자열로 되돌리는가")
+    void roundTrip(){
+        RoutineCursor dated = RoutineCursor.parse("2023-01-05_123");
+        assertEquals(LocalDate.of(2023, 1, 5), dated.getDate());
+        assertEquals(123L, dated.getId());
+        assertEquals("2023-01-05_123", dated.toString());
+
+        RoutineCursor undated = RoutineCursor.parse("_7");
+        assertNull(undated.getDate());
+        assertEquals(7L, undated.getId());
+        assertEquals("_7", undated.toString());
+
+        RoutineDTO last = new RoutineDTO(9L, 1L, null, "스쿼트");
+        assertEquals("_9", RoutineCursor.after(last).toString());
+    }
+
+    @Test
+    @DisplayName("형식이 틀린 커서는 IllegalArgumentException")
+    void malformed(){
+        for (String value : new String[]{"", "123", "2023-01-05", "2023-01-05_", "2023-13-01_1", "2023-01-05_abc", "_"}) {
+            assertThrows(IllegalArgumentException.class, () -> RoutineCursor.parse(value), value);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.healthyclub.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//List<RoutineDTO>의 JSON / CBOR / Smile 크기와 직렬화 / 역직렬화 시간 비교 (-Dbenchmark=true 일 때만 실행)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RoutineSerializationBenchmarkTest {
+
+    private static final TypeReference<List<RoutineDTO>> ROUTINE_LIST = new TypeReference<>() {};
+
+    //MessageConverterConfig와 같은 설정 (스프링 부트 기본 : 날짜는 문자열)
+    private static ObjectMapper mapper(com.fasterxml.jackson.core.JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (factory != null) builder.factory(factory);
+        return builder.build();
+    }
+
+    @Test
+    @DisplayName("10, 1000, 10000개 루틴 목록의 형식별 크기와 시간")
+    void compare() throws IOException {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", mapper(null));
+        mappers.put("cbor", mapper(new CBORFactory()));
+        mappers.put("smile", mapper(new SmileFactory()));
+
+        for (int size : new int[]{10, 1_000, 10_000}) {
+            List<RoutineDTO> routines = routines(size);
+            int iterations = Math.max(20, 200_000 / size);
+
+            for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+                ObjectMapper mapper = entry.getValue();
+                byte[] bytes = mapper.writeValueAsBytes(routines);
+
+                //워밍업
+                for (int i = 0; i < iterations; i++) {
+                    mapper.readValue(mapper.writeValueAsBytes(routines), ROUTINE_LIST);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    mapper.writeValueAsBytes(routines);
+                }
+                double serializeMicros = (System.nanoTime() - start) / 1e3 / iterations;
+
+                start = System.nanoTime();
+                List<RoutineDTO> read = null;
+                for (int i = 0; i < iterations; i++) {
+                    read = mapper.readValue(bytes, ROUTINE_LIST);
+                }
+                double deserializeMicros = (System.nanoTime() - start) / 1e3 / iterations;
+
+                assertEquals(size, read.size());
+                assertEquals(routines.get(size - 1).getDate(), read.get(size - 1).getDate());
+
+                System.out.printf("size=%d %-5s bytes=%d gzip=%d serialize=%.1fus deserialize=%.1fus%n",
+                        size, entry.getKey(), bytes.length, gzip(bytes).length, serializeMicros, deserializeMicros);
+            }
+        }
+    }
+
+    private static List<RoutineDTO> routines(int size) {
+        String[] texts = {"스쿼트 100kg 5x5\n벤치프레스 60kg 5x5", "데드리프트 3세트 5회 120kg", "런닝머신 30분, 플랭크 3세트"};
+        List<RoutineDTO> routines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            routines.add(new RoutineDTO((long) i + 1, 1L, LocalDate.of(2023, 1, 1).plusDays(i % 365), texts[i % texts.length]));
+        }
+        return routines;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.healthyclub.jwt;
+
+import com.example.healthyclub.entity.TokenCutoffEntity;
+import com.example.healthyclub.repository.RevokedTokenRepository;
+import com.example.healthyclub.repository.TokenCutoffRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final TokenCutoffRepository cutoffRepository = mock(TokenCutoffRepository.class);
+    private final TokenRevocationService service = new TokenRevocationService(repository, cutoffRepository,
+            new TokenProvider(), new VerifiedTokenCache(100, new SimpleMeterRegistry()), new SimpleMeterRegistry(), 1000, 0.01);
+
+    @Test
+    @DisplayName("회원의 토큰을 모두 폐기하면 그 전에 발급된 토큰은 jti와 상관없이 거절, 다른 회원은 그대로")
+    void revokeAll(){
+        long now = System.currentTimeMillis();
+        long exp = now + 60_000;
+
+        service.revokeAll(7L);
+
+        assertTrue(service.isRevoked(new VerifiedToken("7", "jti-a", exp, now - 1_000)));
+        assertTrue(service.isRevoked(new VerifiedToken("7", null, exp, 0L)));
+        assertFalse(service.isRevoked(new VerifiedToken("8", "jti-b", exp, now - 1_000)));
+        assertFalse(service.isRevoked(new VerifiedToken("7", "jti-c", exp, now + 5_000)));
+        verify(cutoffRepository).save(any(TokenCutoffEntity.class));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("재구성하면 DB에 남은 기준 시각을 다시 읽음")
+    void rebuild(){
+        LocalDateTime cutoff = LocalDateTime.now();
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        when(cutoffRepository.findActive(any())).thenReturn(List.of(new TokenCutoffEntity(3L, cutoff, cutoff.plusDays(1))));
+
+        service.rebuild();
+
+        assertTrue(service.isRevoked(new VerifiedToken("3", null, cutoffMillis + 60_000, cutoffMillis)));
+        assertFalse(service.isRevoked(new VerifiedToken("3", null, cutoffMillis + 60_000, cutoffMillis + 1)));
+    }
+}
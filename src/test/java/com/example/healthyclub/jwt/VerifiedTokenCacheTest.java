@@ -0,0 +1,47 @@
+package com.example.healthyclub.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    @DisplayName("검증된 토큰은 캐시에서 바로 userId가 나오는가")
+    void hit(){
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+
+        assertNull(cache.get("a.b.c"));
+        cache.put("a.b.c", new VerifiedToken("1", "jti", System.currentTimeMillis() + 60_000, System.currentTimeMillis()));
+
+        assertEquals("1", cache.get("a.b.c").getUserId());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("만료된 토큰은 캐시에 남지 않는가")
+    void expired(){
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+
+        cache.put("a.b.c", new VerifiedToken("1", "jti", System.currentTimeMillis() - 1, 0L));
+
+        assertNull(cache.get("a.b.c"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘지 않는가")
+    void bounded(){
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        long exp = System.currentTimeMillis() + 60_000;
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("token" + i, new VerifiedToken(String.valueOf(i), null, exp, 0L));
+        }
+
+        assertTrue(cache.size() <= 100);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.util.ChunkedBitmap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExerciseTypeIndexTest {
+
+    @Test
+    @DisplayName("종목 수정 시 바뀐 종목만 반영되는가")
+    void update(){
+        ExerciseTypeIndex index = new ExerciseTypeIndex();
+        index.update(1, List.of("헬스", "Running "));
+        index.update(2, List.of("running"));
+
+        assertEquals(1, index.sharedTypes(1, 2));
+        assertEquals(2, index.typeCount());
+
+        index.update(1, List.of("헬스", "수영"));
+        assertEquals(0, index.sharedTypes(1, 2));
+        assertEquals(List.of("헬스", "수영"), index.typesOf(1));
+
+        index.remove(2);
+        assertEquals(2, index.typeCount());
+        assertEquals(List.of(), index.typesOf(2));
+    }
+
+    @Test
+    @DisplayName("다시 읽은 색인으로 바꿔 끼우고, 읽는 동안 바뀐 유저는 메모리 값을 유지하는가")
+    void reload(){
+        ExerciseTypeIndex index = new ExerciseTypeIndex();
+        index.update(1, List.of("헬스"));
+        index.update(2, List.of("요가"));
+
+        ExerciseTypeIndex.Reload reload = index.reload();
+        //DB에서 읽은 값 : 1은 그대로, 2는 탈퇴해서 없음, 3은 다른 프로세스가 넣음
+        reload.add(1, "헬스");
+        reload.add(3, " 수영");
+        reload.add(3, "수영");
+        //읽는 동안 가입 / 수정 (읽은 행에는 없거나 예전 값)
+        index.update(1, List.of("헬스", "수영"));
+        index.update(4, List.of("헬스"));
+        //바꿔 끼우기 전에는 지금 색인 그대로
+        assertEquals(List.of("요가"), index.typesOf(2));
+        assertEquals(List.of(), index.typesOf(3));
+
+        reload.swap();
+
+        assertEquals(List.of("헬스", "수영"), index.typesOf(1));
+        assertEquals(List.of(), index.typesOf(2));
+        assertEquals(List.of("수영"), index.typesOf(3));
+        assertEquals(List.of("헬스"), index.typesOf(4));
+        assertEquals(1, index.sharedTypes(1, 3));
+        assertEquals(2, index.typeCount());
+
+        //끝난 뒤의 수정은 따로 모아두지 않고, 실패한 다시 읽기는 지금 색인을 건드리지 않음
+        index.update(4, List.of("요가"));
+        ExerciseTypeIndex.Reload failed = index.reload();
+        failed.add(5, "복싱");
+        failed.discard();
+        assertEquals(List.of("요가"), index.typesOf(4));
+        assertEquals(List.of(), index.typesOf(5));
+    }
+
+    @Test
+    @DisplayName("단어 단위로 센 겹치는 종목 수가 하나씩 센 것과 같은가")
+    void forEachOverlapMatchesNaiveCount(){
+        ExerciseTypeIndex index = new ExerciseTypeIndex();
+        String[] types = {"헬스", "러닝", "수영", "요가", "클라이밍", "테니스", "복싱"};
+        Random random = new Random(42);
+        Map<Integer, List<String>> users = new HashMap<>();
+
+        //블록 경계를 넘도록 id를 띄엄띄엄
+        for (int i = 0; i < 5_000; i++) {
+            int userId = random.nextInt(300_000);
+            List<String> picked = new ArrayList<>();
+            for (String type : types) {
+                if (random.nextInt(3) == 0) picked.add(type);
+            }
+            index.update(userId, picked);
+            users.put(userId, picked);
+        }
+        int me = users.keySet().iterator().next();
+        index.update(me, List.of("헬스", "러닝", "수영", "요가"));
+        users.put(me, List.of("헬스", "러닝", "수영", "요가"));
+
+        ChunkedBitmap exclude = new ChunkedBitmap();
+        exclude.add(me);
+
+        Map<Integer, Integer> counted = new HashMap<>();
+        index.forEachOverlap(me, exclude, (userId, shared) -> assertNull(counted.put(userId, shared)));
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        users.forEach((userId, picked) -> {
+            if (userId == me) return;
+            int shared = (int) picked.stream().filter(users.get(me)::contains).count();
+            if (shared > 0) expected.put(userId, shared);
+        });
+        assertEquals(expected, counted);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.event.RoutineChangedEvent;
+import com.example.healthyclub.repository.RoutineRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FeedServiceTest {
+
+    private final RoutineRepository routineRepository = mock(RoutineRepository.class);
+    private final FriendGraph graph = new FriendGraph();
+
+    {
+        //id마다 루틴 하나 (작성자는 2)
+        when(routineRepository.findDTOsByIdIn(anyCollection())).thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0))
+                .stream()
+                .map(id -> new RoutineDTO(id, 2L, LocalDate.of(2023, 1, 1), "스쿼트"))
+                .collect(Collectors.toList()));
+        graph.add(1, 2);
+    }
+
+    private FeedService service(int timelineCapacity) {
+        return new FeedService(routineRepository, new RoutineBodyService(null, 100), graph,
+                new SimpleMeterRegistry(), timelineCapacity, 1000, 100);
+    }
+
+    @Test
+    @DisplayName("타임라인은 처음 읽을 때 한 번 만들고, 그 뒤 친구의 새 루틴은 타임라인에 바로 들어가는가")
+    void fanOutOnWrite(){
+        FeedService feed = service(200);
+        when(routineRepository.findIdsOfFriendsBefore(eq(1L), eq(Long.MAX_VALUE), any())).thenReturn(List.of(5L, 3L));
+
+        assertEquals(List.of(5L, 3L), ids(feed.feed(1L, null, 10)));
+
+        feed.onRoutineChanged(RoutineChangedEvent.created(new RoutineDTO(7L, 2L, LocalDate.of(2023, 1, 2), "런지")));
+        FeedService.Page page = feed.feed(1L, null, 2);
+
+        assertEquals(List.of(7L, 5L), ids(page));
+        assertEquals(5L, page.getNextCursor());
+        assertEquals(List.of(3L), ids(feed.feed(1L, 5L, 2)));
+        assertNull(feed.feed(1L, 5L, 2).getNextCursor());
+        verify(routineRepository, times(1)).findIdsOfFriendsBefore(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("타임라인을 만드는 동안 읽은 요청은 DB에서 읽고, 친구가 바뀌면 다시 만드는가")
+    void rebuild(){
+        FeedService feed = service(200);
+        List<List<Long>> duringBuild = new ArrayList<>();
+        AtomicBoolean building = new AtomicBoolean();
+        when(routineRepository.findIdsOfFriendsBefore(eq(1L), eq(Long.MAX_VALUE), any())).thenAnswer(inv -> {
+            //만드는 중에 들어온 다른 요청 : 채우다 만 타임라인 대신 DB에서 읽어야 함
+            if (building.compareAndSet(false, true)) {
+                duringBuild.add(ids(feed.feed(1L, null, 10)));
+            }
+            return List.of(5L, 3L);
+        });
+
+        assertEquals(List.of(5L, 3L), ids(feed.feed(1L, null, 10)));
+        assertEquals(List.of(List.of(5L, 3L)), duringBuild);
+
+        feed.invalidate(1L);
+        feed.feed(1L, null, 10);
+        verify(routineRepository, times(3)).findIdsOfFriendsBefore(eq(1L), eq(Long.MAX_VALUE), any());
+    }
+
+    @Test
+    @DisplayName("타임라인 용량보다 오래된 페이지는 DB에서 읽는가")
+    void olderThanTimeline(){
+        FeedService feed = service(3);
+        when(routineRepository.findIdsOfFriendsBefore(eq(1L), eq(Long.MAX_VALUE), any())).thenReturn(List.of(9L, 8L, 7L));
+        when(routineRepository.findIdsOfFriendsBefore(eq(1L), eq(8L), any())).thenReturn(List.of(7L, 6L));
+
+        FeedService.Page first = feed.feed(1L, null, 2);
+        FeedService.Page second = feed.feed(1L, first.getNextCursor(), 2);
+
+        assertEquals(List.of(9L, 8L), ids(first));
+        assertEquals(List.of(7L, 6L), ids(second));
+        verify(routineRepository).findIdsOfFriendsBefore(eq(1L), eq(8L), any());
+    }
+
+    private static List<Long> ids(FeedService.Page page) {
+        return page.getRoutines().stream().map(RoutineDTO::getId).collect(Collectors.toList());
+    }
+}
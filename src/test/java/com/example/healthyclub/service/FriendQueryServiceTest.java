@@ -0,0 +1,85 @@
+package com.example.healthyclub.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FriendQueryServiceTest {
+
+    @Test
+    @DisplayName("함께 아는 친구")
+    void mutual(){
+        FriendGraph graph = new FriendGraph();
+        graph.add(1, 10);
+        graph.add(1, 11);
+        graph.add(1, 12);
+        graph.add(2, 11);
+        graph.add(2, 12);
+        graph.add(2, 13);
+        FriendQueryService queries = new FriendQueryService(graph, new SimpleMeterRegistry(), 100, 10);
+
+        assertArrayEquals(new long[]{11, 12}, queries.mutualFriends(1, 2));
+        assertEquals(Map.of(2L, 2, 3L, 0), queries.mutualCounts(1, List.of(2L, 3L, 2L)));
+    }
+
+    @Test
+    @DisplayName("2촌은 함께 아는 친구가 많은 순이고, 나와 내 친구는 빠지는가")
+    void twoHop(){
+        FriendGraph graph = new FriendGraph();
+        graph.add(1, 2);
+        graph.add(1, 3);
+        graph.add(2, 1);
+        graph.add(2, 3);
+        graph.add(2, 5);
+        graph.add(2, 4);
+        graph.add(3, 4);
+        //캐시를 쓰도록 최소 친구 수 0
+        FriendQueryService queries = new FriendQueryService(graph, new SimpleMeterRegistry(), 0, 10);
+
+        FriendQueryService.TwoHop twoHop = queries.twoHop(1);
+        assertEquals(2, twoHop.size());
+        assertEquals(4, twoHop.id(0));
+        assertEquals(2, twoHop.count(0));
+        assertEquals(5, twoHop.id(1));
+        assertEquals(1, twoHop.count(1));
+
+        //캐시된 결과와 같은 객체
+        assertSame(twoHop, queries.twoHop(1));
+
+        //친구의 친구 목록이 바뀌면 다시 계산
+        graph.add(3, 6);
+        FriendQueryService.TwoHop changed = queries.twoHop(1);
+        assertNotSame(twoHop, changed);
+        assertEquals(3, changed.size());
+        assertEquals(6, changed.id(2));
+    }
+
+    @Test
+    @DisplayName("친구를 바꿨을 때 버전 합이 우연히 같아도 다시 계산하는가")
+    void friendSwapWithSameVersionSum(){
+        FriendGraph graph = new FriendGraph();
+        graph.add(1, 2);
+        graph.add(1, 3);
+        graph.add(2, 10);
+        graph.add(2, 11);
+        graph.add(2, 12);
+        graph.add(3, 11);
+        graph.add(4, 13);
+        FriendQueryService queries = new FriendQueryService(graph, new SimpleMeterRegistry(), 0, 10);
+        assertEquals(3, queries.twoHop(1).size());
+
+        //버전 합 : 1(2) + 2(3) + 3(1) = 6 -> 1(4) + 3(1) + 4(1) = 6
+        graph.remove(1, 2);
+        graph.add(1, 4);
+        FriendQueryService.TwoHop changed = queries.twoHop(1);
+
+        assertEquals(2, changed.size());
+        assertEquals(11, changed.id(0));
+        assertEquals(13, changed.id(1));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.repository.FriendRepository;
+import com.example.healthyclub.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FriendServiceTest {
+
+    private final FriendRepository friendRepository = mock(FriendRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final FriendGraph graph = new FriendGraph();
+    private final FriendService service = new FriendService(friendRepository, userRepository, graph,
+            mock(FeedService.class), mock(JdbcTemplate.class));
+
+    @Test
+    @DisplayName("친구 추가는 insert 한 번, 이미 친구면 DB에 가지 않는가")
+    void addOnce(){
+        assertArrayEquals(new long[]{2}, service.add(1L, 2L));
+        assertArrayEquals(new long[]{2}, service.add(1L, 2L));
+
+        verify(friendRepository, times(1)).insert(1L, 2L);
+        verifyNoMoreInteractions(friendRepository);
+    }
+
+    @Test
+    @DisplayName("동시에 같은 친구를 추가해도 insert는 한 번인가")
+    void concurrentAdd() throws Exception {
+        //중복 insert가 나가면 DB처럼 기본 키 중복으로 실패
+        when(friendRepository.insert(1L, 2L)).thenReturn(1).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    service.add(1L, 2L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        verify(friendRepository, times(1)).insert(1L, 2L);
+        verify(userRepository, never()).existsById(any());
+        assertTrue(graph.isFriend(1, 2));
+    }
+
+    @Test
+    @DisplayName("없는 친구는 예외, 그래프에 들어가지 않는가")
+    void unknownFriend(){
+        when(friendRepository.insert(1L, 3L)).thenThrow(new DataIntegrityViolationException("fk"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.add(1L, 3L));
+        assertFalse(graph.isFriend(1, 3));
+    }
+
+    @Test
+    @DisplayName("삭제는 delete 한 번, 친구가 아니면 예외")
+    void remove(){
+        service.add(1L, 2L);
+
+        assertArrayEquals(new long[0], service.remove(1L, 2L));
+        verify(friendRepository, times(1)).deleteEdge(1L, 2L);
+        assertThrows(IllegalArgumentException.class, () -> service.remove(1L, 2L));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.error.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashExecutorTest {
+
+    @Test
+    @DisplayName("대기열이 가득 차면 기다리지 않고 바로 거절하는가")
+    void rejectWhenQueueFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        PasswordHashExecutor hasher = new PasswordHashExecutor(slowEncoder, new SimpleMeterRegistry(), 1, 1, 5000, 3);
+
+        //스레드 1개 + 대기열 1개를 채운다
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> hasher.encode("a"));
+        callers.submit(() -> hasher.encode("b"));
+        while (hasher.getQueueDepth() < 1) {
+            Thread.sleep(5);
+        }
+
+        ServiceBusyException e = assertThrows(ServiceBusyException.class, () -> hasher.encode("c"));
+        assertEquals(3, e.getRetryAfterSeconds());
+
+        release.countDown();
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+        hasher.shutdown();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineBatchRequestDTO;
+import com.example.healthyclub.dto.RoutineBatchResponseDTO;
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.entity.UserEntity;
+import com.example.healthyclub.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//루틴 일괄 처리 처리량 측정 (DB가 필요하므로 -Dbenchmark=true 일 때만 실행)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RoutineBatchBenchmarkTest {
+
+    @Autowired
+    RoutineService routineService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    @DisplayName("요청당 1, 10, 100개 루틴 생성 / 삭제 처리량")
+    void throughput(){
+        UserEntity user = new UserEntity();
+        user.setUserId("batch-bench-" + System.nanoTime());
+        user.setJoinDate(LocalDate.now());
+        user.setUpdateDate(LocalDate.now());
+        user = userRepository.save(user);
+        Long id = user.getId();
+
+        try {
+            for (int opsPerRequest : new int[]{1, 10, 100}) {
+                int requests = Math.max(20, 2000 / opsPerRequest);
+                //워밍업
+                run(id, opsPerRequest, 5);
+
+                long start = System.nanoTime();
+                run(id, opsPerRequest, requests);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf("ops/request=%d requests=%d -> %.1f requests/s, %.1f routines/s%n",
+                        opsPerRequest, requests, requests / seconds, requests * opsPerRequest / seconds);
+            }
+        } finally {
+            userRepository.deleteById(id);
+        }
+    }
+
+    //요청 한 번에 n개 생성, 다음 요청에서 그 n개 삭제
+    private void run(Long userId, int n, int requests){
+        for (int r = 0; r < requests; r += 2) {
+            List<RoutineDTO> create = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                create.add(new RoutineDTO(null, userId, LocalDate.now().plusDays(i), "스쿼트 5x5 100kg"));
+            }
+            RoutineBatchResponseDTO created = routineService.batch(
+                    new RoutineBatchRequestDTO(create, List.of(), List.of()), userId, userId);
+
+            List<Long> ids = created.getCreated().stream().map(RoutineDTO::getId).collect(Collectors.toList());
+            routineService.batch(new RoutineBatchRequestDTO(List.of(), List.of(), ids), userId, userId);
+        }
+    }
+}
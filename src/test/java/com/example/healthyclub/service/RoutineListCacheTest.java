@@ -0,0 +1,64 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineListCacheTest {
+
+    private final RoutineListCache cache = new RoutineListCache(new SimpleMeterRegistry(), 100, 600);
+
+    @Test
+    @DisplayName("두 번째 조회는 DB(loader)를 타지 않는가")
+    void readThrough(){
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> { loads.incrementAndGet(); return routines(id); });
+        RoutineListCache.Window second = cache.get(1L, id -> { loads.incrementAndGet(); return routines(id); });
+
+        assertEquals(1, loads.get());
+        assertEquals(1, second.getRoutines().size());
+        assertTrue(second.isComplete());
+        assertEquals(0.5, cache.hitRatio());
+        assertThrows(UnsupportedOperationException.class, () -> second.getRoutines().add(new RoutineDTO()));
+    }
+
+    @Test
+    @DisplayName("무효화하면 다시 읽는가, 다른 유저는 그대로인가")
+    void invalidate(){
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> { loads.incrementAndGet(); return routines(id); });
+        cache.get(2L, id -> { loads.incrementAndGet(); return routines(id); });
+
+        cache.invalidate(1L);
+        cache.get(1L, id -> { loads.incrementAndGet(); return routines(id); });
+        cache.get(2L, id -> { loads.incrementAndGet(); return routines(id); });
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("읽는 도중에 무효화되면 그 결과는 캐시하지 않는가")
+    void invalidatedWhileLoading(){
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> { loads.incrementAndGet(); cache.invalidate(id); return routines(id); });
+        cache.get(1L, id -> { loads.incrementAndGet(); return routines(id); });
+
+        assertEquals(2, loads.get());
+    }
+
+    private static RoutineListCache.Window routines(Long userId){
+        List<RoutineDTO> list = new ArrayList<>();
+        list.add(new RoutineDTO(1L, userId, LocalDate.of(2023, 1, 1), "스쿼트"));
+        return new RoutineListCache.Window(list, true);
+    }
+}
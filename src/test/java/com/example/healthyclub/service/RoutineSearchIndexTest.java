@@ -0,0 +1,91 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.event.RoutineChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineSearchIndexTest {
+
+    private final RoutineSearchIndex index = new RoutineSearchIndex(null, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("한국어 단어 일부로 찾을 수 있는가, 최신 순인가")
+    void koreanBigrams(){
+        index.onRoutineChanged(RoutineChangedEvent.created(routine(1L, "스쿼트 5세트")));
+        index.onRoutineChanged(RoutineChangedEvent.created(routine(2L, "데드리프트 3세트, 스쿼트 3세트")));
+        index.onRoutineChanged(RoutineChangedEvent.created(routine(3L, "벤치프레스")));
+
+        assertArrayEquals(new long[]{2L, 1L}, index.search("스쿼트", 0, 10).getRoutineIds());
+        assertArrayEquals(new long[]{2L}, index.search("리프트", 0, 10).getRoutineIds());
+        assertArrayEquals(new long[]{2L, 1L}, index.search("세트", 0, 10).getRoutineIds());
+        assertEquals(0, index.search("런지", 0, 10).getRoutineIds().length);
+    }
+
+    @Test
+    @DisplayName("수정 / 삭제가 반영되는가")
+    void incremental(){
+        index.onRoutineChanged(RoutineChangedEvent.created(routine(1L, "스쿼트")));
+        index.onRoutineChanged(RoutineChangedEvent.updated(routine(1L, "스쿼트"), routine(1L, "데드리프트")));
+
+        assertEquals(0, index.search("스쿼트", 0, 10).getRoutineIds().length);
+        assertArrayEquals(new long[]{1L}, index.search("데드", 0, 10).getRoutineIds());
+
+        index.onRoutineChanged(RoutineChangedEvent.deleted(routine(1L, "데드리프트")));
+        assertEquals(0, index.search("데드", 0, 10).getRoutineIds().length);
+    }
+
+    @Test
+    @DisplayName("페이지를 나눠서 받을 수 있는가, 다음 페이지가 있는지 알려주는가")
+    void paging(){
+        for (long id = 1; id <= 25; id++) {
+            index.onRoutineChanged(RoutineChangedEvent.created(routine(id, "Squat " + id)));
+        }
+
+        RoutineSearchIndex.Result first = index.search("squat", 0, 10);
+        RoutineSearchIndex.Result last = index.search("SQUAT", 2, 10);
+
+        assertEquals(25L, first.getRoutineIds()[0]);
+        assertTrue(first.hasNext());
+        assertArrayEquals(new long[]{5L, 4L, 3L, 2L, 1L}, last.getRoutineIds());
+        assertFalse(last.hasNext());
+        assertFalse(index.search("squat", 1, 15).hasNext());
+        assertEquals(0, index.search("squat", 3, 10).getRoutineIds().length);
+    }
+
+    @Test
+    @DisplayName("여러 바이그램의 교집합을 최신 순으로 구하는가")
+    void intersectNewestFirst(){
+        //id가 3의 배수면 스쿼트, 짝수면 런지도 들어감
+        for (long id = 1; id <= 200; id++) {
+            String text = "벤치" + (id % 3 == 0 ? " 스쿼트" : "") + (id % 2 == 0 ? " 런지" : "");
+            index.onRoutineChanged(RoutineChangedEvent.created(routine(id, text)));
+        }
+
+        RoutineSearchIndex.Result result = index.search("스쿼트 런지", 0, 5);
+
+        assertArrayEquals(new long[]{198L, 192L, 186L, 180L, 174L}, result.getRoutineIds());
+        assertTrue(result.hasNext());
+        assertArrayEquals(new long[]{18L, 12L, 6L}, index.search("런지 벤치 스쿼트", 6, 5).getRoutineIds());
+    }
+
+    @Test
+    @DisplayName("한 글자 단어는 색인하지 않고, 검색어의 가장 짧은 단어 길이를 알려주는가")
+    void singleCharacterWords(){
+        index.onRoutineChanged(RoutineChangedEvent.created(routine(1L, "런지 3 x 10")));
+
+        assertEquals(1, RoutineSearchIndex.shortestWord("스쿼트 5"));
+        assertEquals(2, RoutineSearchIndex.shortestWord("스쿼트, 10"));
+        assertEquals(0, RoutineSearchIndex.shortestWord("!!"));
+        assertArrayEquals(new String[]{"런지", "10"}, RoutineSearchIndex.grams("런지 3 x 10"));
+    }
+
+    private static RoutineDTO routine(Long id, String text) {
+        return new RoutineDTO(id, 1L, LocalDate.of(2023, 1, 1), text);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineCursor;
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.mapper.RoutineCalendarMapper;
+import com.example.healthyclub.repository.RoutineRepository;
+import com.example.healthyclub.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoutineServiceTest {
+
+    private final RoutineRepository routineRepository = mock(RoutineRepository.class);
+    private final RoutineListCache routineListCache = new RoutineListCache(new SimpleMeterRegistry(), 100, 600);
+    private final RoutineBodyService routineBodyService = mock(RoutineBodyService.class);
+    private final RoutineService service = new RoutineService(routineRepository, mock(UserRepository.class),
+            mock(UserService.class), routineListCache, new ResourceVersions(), mock(RoutineCalendarMapper.class),
+            routineBodyService, mock(RoutineSearchIndex.class), mock(ApplicationEventPublisher.class));
+
+    {
+        when(routineBodyService.intern(anyList())).thenAnswer(inv -> new ArrayList<>(inv.<List<RoutineDTO>>getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("루틴이 캐시 구간 안에 다 들어가면 두 번째 전체 조회는 DB를 보지 않고, 복사본을 돌려주는가")
+    void showAllFromCache(){
+        when(routineRepository.findSortedByUserId(eq(1L), any())).thenReturn(routines(1L, 3));
+
+        List<RoutineDTO> first = service.showAll(1L);
+        List<RoutineDTO> second = service.showAll(1L);
+
+        verify(routineRepository, times(1)).findSortedByUserId(eq(1L), any());
+        assertEquals(0.5, routineListCache.hitRatio());
+        assertEquals(List.of(1L, 2L, 3L), ids(second));
+        //꺼낸 쪽에서 고쳐도 캐시에는 영향 없음
+        second.get(0).setRoutine("바뀐 루틴");
+        assertNotEquals("바뀐 루틴", service.showAll(1L).get(0).getRoutine());
+        assertNotSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    @DisplayName("루틴이 캐시 구간보다 많으면 DB에서 전부 읽는가")
+    void showAllLargeHistory(){
+        int total = RoutineService.CACHED_WINDOW + 500;
+        when(routineRepository.findSortedByUserId(eq(1L), any())).thenAnswer(inv -> {
+            Pageable limit = inv.getArgument(1);
+            return routines(1L, limit.isPaged() ? Math.min(total, limit.getPageSize()) : total);
+        });
+
+        assertEquals(total, service.showAll(1L).size());
+        verify(routineRepository).findSortedByUserId(1L, Pageable.unpaged());
+    }
+
+    @Test
+    @DisplayName("캐시 구간 안의 페이지는 DB 페이지 쿼리 없이, 날짜 없는 루틴부터 커서로 이어서 읽는가")
+    void showPageFromCache(){
+        List<RoutineDTO> db = new ArrayList<>(routines(1L, 5));
+        db.add(new RoutineDTO(7L, 1L, null, "날짜 없음"));
+        db.add(new RoutineDTO(6L, 1L, null, "날짜 없음"));
+        givenRoutines(db);
+
+        List<Long> read = new ArrayList<>();
+        RoutineCursor cursor = null;
+        List<RoutineDTO> page;
+        while (!(page = service.showPage(1L, null, null, cursor, 2)).isEmpty()) {
+            assertTrue(page.size() <= 2);
+            read.addAll(ids(page));
+            cursor = RoutineCursor.after(page.get(page.size() - 1));
+        }
+
+        assertEquals(List.of(6L, 7L, 1L, 2L, 3L, 4L, 5L), read);
+        verify(routineRepository, never()).findUndatedPage(any(), any(), any());
+        verify(routineRepository, never()).findPage(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("from / to 가 있으면 그 날짜 안의 루틴만, 날짜 없는 루틴은 빼고 주는가")
+    void showPageDateRange(){
+        List<RoutineDTO> db = new ArrayList<>(routines(1L, 10));
+        db.add(new RoutineDTO(11L, 1L, null, "날짜 없음"));
+        givenRoutines(db);
+        LocalDate from = LocalDate.of(2023, 1, 4);
+        LocalDate to = LocalDate.of(2023, 1, 8);
+
+        assertEquals(List.of(3L, 4L, 5L), ids(service.showPage(1L, from, to, null, 3)));
+        assertEquals(List.of(6L, 7L), ids(service.showPage(1L, from, to, new RoutineCursor(LocalDate.of(2023, 1, 6), 5L), 3)));
+        assertEquals(List.of(11L, 1L), ids(service.showPage(1L, null, LocalDate.of(2023, 1, 2), null, 5)));
+        assertThrows(IllegalArgumentException.class, () -> service.showPage(1L, to, from, null, 3));
+        verify(routineRepository, never()).findPage(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("구간 끝에서 딱 끝나는 페이지는 캐시에서, 구간을 넘는 페이지는 DB에서 읽는가")
+    void showPageWindowBoundary(){
+        int window = RoutineService.CACHED_WINDOW;
+        List<RoutineDTO> db = routines(1L, window + 50);
+        givenRoutines(db);
+
+        //구간의 마지막 10개 : 캐시에서
+        RoutineCursor inside = RoutineCursor.after(db.get(window - 11));
+        assertEquals(range(window - 9, window + 1), ids(service.showPage(1L, null, null, inside, 10)));
+        verify(routineRepository, never()).findPage(any(), any(), any(), any(), any(), any());
+
+        //구간의 마지막 5개 다음까지 필요한 페이지는 DB에서 같은 순서로
+        RoutineCursor nearEnd = RoutineCursor.after(db.get(window - 6));
+        List<RoutineDTO> page = service.showPage(1L, null, null, nearEnd, 10);
+        assertEquals(range(window - 4, window + 6), ids(page));
+        verify(routineRepository).findPage(eq(1L), any(), any(), eq(db.get(window - 6).getDate()), eq((long) window - 5),
+                eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    @DisplayName("구간이 모자라면 날짜 없는 루틴(findUndatedPage)을 읽고 남은 칸은 날짜 있는 루틴(findPage) 처음부터 채우는가")
+    void showPageUndatedHandoff(){
+        int window = RoutineService.CACHED_WINDOW;
+        //날짜 없는 루틴 window - 2개 (id 1부터), 날짜 있는 루틴 100개 (id 10001부터)
+        List<RoutineDTO> db = new ArrayList<>();
+        for (long id = 1; id <= window - 2; id++) {
+            db.add(new RoutineDTO(id, 1L, null, "날짜 없음"));
+        }
+        for (RoutineDTO r : routines(1L, 100)) {
+            db.add(new RoutineDTO(10_000 + r.getId(), 1L, r.getDate(), r.getRoutine()));
+        }
+        givenRoutines(db);
+
+        long afterId = window - 10;
+        List<RoutineDTO> page = service.showPage(1L, null, null, new RoutineCursor(null, afterId), 20);
+
+        List<Long> expected = new ArrayList<>(range(afterId + 1, window - 1));
+        expected.addAll(range(10_001, 10_013));
+        assertEquals(expected, ids(page));
+        verify(routineRepository).findUndatedPage(1L, afterId, PageRequest.of(0, 20));
+        verify(routineRepository).findPage(eq(1L), any(), any(), any(), eq(0L), eq(PageRequest.of(0, 12)));
+    }
+
+    //메모리의 루틴 목록으로 저장소의 정렬 / 페이지 쿼리를 흉내냄 (DB와 같이 날짜 없는 루틴이 맨 앞)
+    private void givenRoutines(List<RoutineDTO> db) {
+        List<RoutineDTO> sorted = db.stream()
+                .sorted(Comparator.comparing(RoutineDTO::getDate, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()))
+                        .thenComparing(RoutineDTO::getId))
+                .collect(Collectors.toList());
+        when(routineRepository.findSortedByUserId(eq(1L), any())).thenAnswer(inv ->
+                limit(sorted, r -> true, inv.getArgument(1)));
+        when(routineRepository.findUndatedPage(eq(1L), any(), any())).thenAnswer(inv -> {
+            Long afterId = inv.getArgument(1);
+            return limit(sorted, r -> r.getDate() == null && r.getId() > afterId, inv.getArgument(2));
+        });
+        when(routineRepository.findPage(eq(1L), any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            LocalDate from = inv.getArgument(1);
+            LocalDate to = inv.getArgument(2);
+            LocalDate afterDate = inv.getArgument(3);
+            Long afterId = inv.getArgument(4);
+            return limit(sorted, r -> r.getDate() != null && !r.getDate().isBefore(from) && !r.getDate().isAfter(to)
+                    && (r.getDate().isAfter(afterDate) || (r.getDate().equals(afterDate) && r.getId() > afterId)), inv.getArgument(5));
+        });
+    }
+
+    private static List<RoutineDTO> limit(List<RoutineDTO> sorted, Predicate<RoutineDTO> condition, Pageable limit) {
+        return sorted.stream()
+                .filter(condition)
+                .limit(limit.isPaged() ? limit.getPageSize() : Long.MAX_VALUE)
+                .map(r -> new RoutineDTO(r.getId(), r.getUserid(), r.getDate(), r.getRoutine()))
+                .collect(Collectors.toList());
+    }
+
+    //id 1부터 n개, 하루에 하나씩
+    static List<RoutineDTO> routines(Long userId, int n) {
+        List<RoutineDTO> routines = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            routines.add(new RoutineDTO((long) i, userId, LocalDate.of(2023, 1, 1).plusDays(i), "스쿼트 " + i));
+        }
+        return routines;
+    }
+
+    private static List<Long> range(long from, long to) {
+        return LongStream.range(from, to).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<RoutineDTO> routines) {
+        List<Long> ids = new ArrayList<>();
+        routines.forEach(r -> ids.add(r.getId()));
+        return ids;
+    }
+}
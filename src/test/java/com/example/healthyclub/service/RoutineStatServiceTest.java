@@ -0,0 +1,127 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.RoutineDTO;
+import com.example.healthyclub.event.RoutineChangedEvent;
+import com.example.healthyclub.repository.RoutineExportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoutineStatServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RoutineExportRepository exportRepository = mock(RoutineExportRepository.class);
+    private final RoutineStatService service = new RoutineStatService(null, exportRepository, jdbcTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    //batchUpdate로 보낸 upsert / 빈 통계 삭제 행
+    private final List<Object[]> upserts = new ArrayList<>();
+    private final List<Object[]> deletes = new ArrayList<>();
+
+    {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            List<Object[]> rows = inv.getArgument(1);
+            (((String) inv.getArgument(0)).startsWith("INSERT") ? upserts : deletes).addAll(rows);
+            return new int[rows.size()];
+        });
+    }
+
+    @AfterEach
+    void clearSynchronization(){
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(service);
+    }
+
+    @Test
+    @DisplayName("한 트랜잭션의 변경은 합쳐서 커밋 직전에 한 번 반영하는가")
+    void mergeInTransaction(){
+        TransactionSynchronizationManager.initSynchronization();
+
+        //월요일과 일요일은 같은 주
+        service.onRoutineChanged(RoutineChangedEvent.created(routine(1L, LocalDate.of(2023, 1, 2), "스쿼트 100kg 5x5")));
+        service.onRoutineChanged(RoutineChangedEvent.created(routine(2L, LocalDate.of(2023, 1, 8), "스쿼트 100kg 3x5, 플랭크")));
+        //본문이 그대로인 수정은 더했다 빼서 0
+        service.onRoutineChanged(RoutineChangedEvent.updated(
+                routine(2L, LocalDate.of(2023, 1, 8), "스쿼트 100kg 3x5, 플랭크"),
+                routine(2L, LocalDate.of(2023, 1, 8), "스쿼트 100kg 3x5, 플랭크")));
+        assertTrue(upserts.isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+
+        upserts.sort(Comparator.comparing(row -> (String) row[1]));
+        assertEquals(2, upserts.size());
+        assertArrayEquals(new Object[]{7L, "스쿼트", Date.valueOf("2023-01-02"), 2, 8, 40, 4000.0}, upserts.get(0));
+        assertArrayEquals(new Object[]{7L, "플랭크", Date.valueOf("2023-01-02"), 1, 0, 0, 0.0}, upserts.get(1));
+        assertTrue(deletes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("삭제 / 주가 바뀐 수정은 이전 주에서 빼고, 빈 통계 행을 지우는가")
+    void subtract(){
+        service.onRoutineChanged(RoutineChangedEvent.updated(
+                routine(1L, LocalDate.of(2023, 1, 2), "스쿼트 100kg 5x5"),
+                routine(1L, LocalDate.of(2023, 1, 9), "스쿼트 100kg 5x5")));
+
+        upserts.sort(Comparator.comparing(row -> (Date) row[2]));
+        assertArrayEquals(new Object[]{7L, "스쿼트", Date.valueOf("2023-01-02"), -1, -5, -25, -2500.0}, upserts.get(0));
+        assertArrayEquals(new Object[]{7L, "스쿼트", Date.valueOf("2023-01-09"), 1, 5, 25, 2500.0}, upserts.get(1));
+        assertEquals(1, deletes.size());
+        assertArrayEquals(new Object[]{7L, "스쿼트", Date.valueOf("2023-01-02")}, deletes.get(0));
+    }
+
+    @Test
+    @DisplayName("백필은 통계가 비어 있을 때만, 덩어리마다 반영하는가")
+    void backfill() throws Exception {
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class))).thenReturn(List.of());
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("user_id")).thenReturn(7L);
+        when(rs.getDate("date")).thenReturn(Date.valueOf("2023-01-02"));
+        when(rs.getString("routine")).thenReturn("스쿼트 100kg 1x5");
+        //루틴 5001개 : 5000개 한 덩어리 + 1개
+        doAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            int limit = inv.getArgument(1);
+            long last = Math.min(afterId + limit, 5001);
+            for (long id = afterId + 1; id <= last; id++) {
+                when(rs.getLong("id")).thenReturn(id);
+                ((RowCallbackHandler) inv.getArgument(2)).processRow(rs);
+            }
+            return null;
+        }).when(exportRepository).streamAfter(anyLong(), anyInt(), any());
+
+        service.afterSingletonsInstantiated();
+
+        verify(exportRepository).streamAfter(eq(0L), eq(5000), any());
+        verify(exportRepository).streamAfter(eq(5000L), eq(5000), any());
+        assertEquals(2, upserts.size());
+        assertArrayEquals(new Object[]{7L, "스쿼트", Date.valueOf("2023-01-02"), 5000, 5000, 25000, 2500000.0}, upserts.get(0));
+        assertArrayEquals(new Object[]{7L, "스쿼트", Date.valueOf("2023-01-02"), 1, 1, 5, 500.0}, upserts.get(1));
+
+        //이미 채워져 있으면 루틴을 읽지 않음
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class))).thenReturn(List.of(1));
+        service.afterSingletonsInstantiated();
+        verify(exportRepository, times(2)).streamAfter(anyLong(), anyInt(), any());
+    }
+
+    private static RoutineDTO routine(Long id, LocalDate date, String text) {
+        return new RoutineDTO(id, 7L, date, text);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.entity.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserAvailabilityServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UserAvailabilityService service = new UserAvailabilityService(jdbcTemplate, new SimpleMeterRegistry(), 1000, 0.01, 2);
+
+    @Test
+    @DisplayName("필터에 없는 값은 DB를 보지 않고 사용 가능")
+    void filterPass(){
+        assertTrue(service.isAvailable(UserAvailabilityService.Field.USER_ID, "newbie", null));
+        assertFalse(service.isAvailable(UserAvailabilityService.Field.USER_ID, "  ", null));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("필터에 있는 값은 DB로 확인하고, 대소문자가 달라도 같은 값으로 보는가")
+    void storeLookup(){
+        UserEntity user = new UserEntity();
+        user.setUserId("Runner");
+        user.setNickname("달리기");
+        user.setEmail("run@naver.com");
+        service.register(user);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any())).thenReturn(true);
+
+        assertFalse(service.isAvailable(UserAvailabilityService.Field.USER_ID, "runner", null));
+        assertThrows(IllegalArgumentException.class, () -> service.requireAvailable(user, null));
+        assertTrue(service.isAvailable(UserAvailabilityService.Field.EMAIL, "walk@naver.com", null));
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Boolean.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("다시 만들 때 전용 스레드 2개까지만 동시에 DB를 읽고, 읽은 값이 새 필터에 들어가는가")
+    void rebuild() throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(32L);
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(Map.of("lo", 1L, "hi", 32L));
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("user_id")).thenReturn("rebuilt");
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(inv -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(5);
+            if (Long.valueOf(1L).equals(inv.getArgument(2))) {
+                ((RowCallbackHandler) inv.getArgument(1)).processRow(row);
+            }
+            running.decrementAndGet();
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+
+        service.rebuild();
+
+        verify(jdbcTemplate, times(16)).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        assertTrue(maxRunning.get() <= 2);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("availability-rebuild-")));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any())).thenReturn(true);
+        assertFalse(service.isAvailable(UserAvailabilityService.Field.USER_ID, "REBUILT", null));
+    }
+
+    @Test
+    @DisplayName("유니크 제약 위반은 어느 필드인지 찾아서 '이미 사용 중' 예외로, 모르는 제약은 그대로 던짐")
+    void duplicated(){
+        IllegalArgumentException e = service.duplicated(new DuplicateKeyException("Duplicate entry 'run@naver.com' for key 'UK_USER_EMAIL'"));
+        assertEquals("이미 사용 중인 이메일입니다.", e.getMessage());
+        assertEquals("이미 사용 중인 닉네임입니다.",
+                service.duplicated(new DuplicateKeyException("Duplicate entry '달리기' for key 'uk_user_nickname'")).getMessage());
+
+        DataIntegrityViolationException other = new DataIntegrityViolationException("Column 'user_id' cannot be null");
+        assertSame(other, assertThrows(DataIntegrityViolationException.class, () -> service.duplicated(other)));
+    }
+}
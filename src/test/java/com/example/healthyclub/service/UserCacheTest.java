@@ -0,0 +1,74 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.UserSnapshot;
+import com.example.healthyclub.entity.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private final UserCache cache = new UserCache(new SimpleMeterRegistry(), 100, 600);
+
+    @Test
+    @DisplayName("id로 읽은 회원을 로그인 아이디로도 DB 없이 찾는가")
+    void bothIndexes(){
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> { loads.incrementAndGet(); return user(1L, "a123"); });
+        UserSnapshot byId = cache.get(1L, () -> { loads.incrementAndGet(); return user(1L, "a123"); });
+        UserSnapshot byLoginId = cache.getByLoginId("a123", () -> { loads.incrementAndGet(); return user(1L, "a123"); });
+
+        assertEquals(1, loads.get());
+        assertSame(byId, byLoginId);
+        assertThrows(UnsupportedOperationException.class, () -> byId.getExerciseType().add("수영"));
+    }
+
+    @Test
+    @DisplayName("무효화 후에는 다시 읽고, 바뀐 로그인 아이디의 예전 색인은 쓰지 않는가")
+    void invalidate(){
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, () -> { loads.incrementAndGet(); return user(1L, "old"); });
+
+        cache.invalidate(1L);
+        cache.get(1L, () -> { loads.incrementAndGet(); return user(1L, "new"); });
+        assertEquals(2, loads.get());
+
+        assertNull(cache.getByLoginId("old", () -> { loads.incrementAndGet(); return null; }));
+        assertEquals(3, loads.get());
+        assertEquals("new", cache.getByLoginId("new", () -> null).getUserId());
+    }
+
+    @Test
+    @DisplayName("읽는 도중에 무효화되면 그 결과는 캐시하지 않는가")
+    void invalidatedWhileLoading(){
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            cache.invalidate(1L);
+            return user(1L, "a123");
+        });
+        cache.getByLoginId("a123", () -> {
+            loads.incrementAndGet();
+            cache.invalidate(1L);
+            return user(1L, "a123");
+        });
+        cache.get(1L, () -> { loads.incrementAndGet(); return user(1L, "a123"); });
+
+        assertEquals(3, loads.get());
+    }
+
+    private static UserSnapshot user(Long id, String loginId) {
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        return new UserSnapshot(new UserEntity(id, "이름", loginId, "hash", "닉네임", "1@naver.com", 170, 60,
+                "남자", "010111", 20, new ArrayList<>(List.of("헬스")), date, date));
+    }
+}
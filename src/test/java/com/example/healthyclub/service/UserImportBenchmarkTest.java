@@ -0,0 +1,68 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.UserImportResultDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+
+//회원 CSV 일괄 등록 처리량 측정 - 해싱 스레드 1개 / 코어 수 (DB가 필요하므로 -Dbenchmark=true 일 때만 실행)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserImportBenchmarkTest {
+
+    private static final int ROWS = 2000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PasswordEncoder encoder;
+
+    @Autowired
+    UserAvailabilityService availability;
+
+    @Autowired
+    ExerciseTypeIndex exerciseTypeIndex;
+
+    @Test
+    @DisplayName("해싱 스레드 수별 rows/s")
+    void throughput() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        String prefix = "import-bench-" + System.nanoTime() + "-";
+
+        try {
+            for (int threads : new int[]{1, cores}) {
+                UserImportService service = new UserImportService(jdbcTemplate, transactionTemplate, encoder,
+                        availability, exerciseTypeIndex, new SimpleMeterRegistry(), 500, threads);
+                UserImportResultDTO result = service.importCsv(new StringReader(csv(prefix + threads + "-")));
+
+                System.out.printf("threads=%d rows=%d imported=%d -> %.1f rows/s (%d ms)%n",
+                        threads, result.getRead(), result.getImported(), result.getRowsPerSecond(), result.getElapsedMillis());
+            }
+        } finally {
+            jdbcTemplate.update("DELETE e FROM exercise_type e JOIN user u ON u.id = e.user_entity_id WHERE u.user_id LIKE ?", prefix + "%");
+            jdbcTemplate.update("DELETE FROM user WHERE user_id LIKE ?", prefix + "%");
+        }
+    }
+
+    private static String csv(String prefix) {
+        StringBuilder csv = new StringBuilder("userId,password,name,nickname,email,height,weight,gender,phone,age,exerciseType\n");
+        for (int i = 0; i < ROWS; i++) {
+            String id = prefix + i;
+            csv.append(id).append(",pw-").append(i).append(",회원").append(i).append(',').append(id)
+                    .append(',').append(id).append("@partner-gym.com,175,70,M,010-0000-0000,30,헬스|러닝\n");
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.healthyclub.service;
+
+import com.example.healthyclub.dto.UserImportResultDTO;
+import com.example.healthyclub.entity.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UserAvailabilityService availability = new UserAvailabilityService(jdbcTemplate, new SimpleMeterRegistry(), 1000, 0.01, 2);
+    private final ExerciseTypeIndex exerciseTypeIndex = new ExerciseTypeIndex();
+
+    //해시 대신 앞에 표시만 붙임
+    private final PasswordEncoder encoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    };
+
+    //INSERT 된 회원 아이디 / 해시, 생성된 id (1부터)
+    private final List<String> insertedUserIds = new ArrayList<>();
+    private final List<String> insertedPasswords = new ArrayList<>();
+    private final List<Object[]> insertedTypes = new ArrayList<>();
+    //이 아이디가 든 배치는 유니크 제약에 걸린 것처럼 실패 (INSERT 된 것도 되돌림)
+    private final Set<String> conflicting = new HashSet<>();
+
+    private UserImportService service(int chunkSize) throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet keys = mock(ResultSet.class);
+        AtomicInteger batch = new AtomicInteger();
+        AtomicInteger key = new AtomicInteger();
+        AtomicInteger lastKey = new AtomicInteger();
+
+        when(connection.prepareStatement(anyString(), anyInt())).thenAnswer(inv -> {
+            batch.set(0);
+            return statement;
+        });
+        doAnswer(inv -> insertedUserIds.add(inv.getArgument(1))).when(statement).setString(eq(2), any());
+        doAnswer(inv -> insertedPasswords.add(inv.getArgument(1))).when(statement).setString(eq(3), any());
+        doAnswer(inv -> batch.incrementAndGet()).when(statement).addBatch();
+        when(statement.getGeneratedKeys()).thenAnswer(inv -> {
+            lastKey.set(key.get() + batch.get());
+            return keys;
+        });
+        when(keys.next()).thenAnswer(inv -> key.get() < lastKey.get());
+        when(keys.getLong(1)).thenAnswer(inv -> (long) key.incrementAndGet());
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(inv -> {
+            int before = insertedUserIds.size();
+            Object ids = ((ConnectionCallback<?>) inv.getArgument(0)).doInConnection(connection);
+            List<String> batchIds = insertedUserIds.subList(before, insertedUserIds.size());
+            if (batchIds.stream().anyMatch(conflicting::contains)) {
+                batchIds.clear();
+                insertedPasswords.subList(before, insertedPasswords.size()).clear();
+                throw new DuplicateKeyException("Duplicate entry 'x' for key 'uk_user_user_id'");
+            }
+            return ids;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            List<Object[]> rows = inv.getArgument(1);
+            insertedTypes.addAll(rows);
+            return new int[rows.size()];
+        });
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new UserImportService(jdbcTemplate, transactionTemplate, encoder, availability, exerciseTypeIndex,
+                new SimpleMeterRegistry(), chunkSize, 2);
+    }
+
+    @Test
+    @DisplayName("덩어리마다 해싱 후 저장, 운동 종목과 중복 확인 필터에 반영")
+    void importRows() throws Exception {
+        StringBuilder csv = new StringBuilder("userId,password,nickname,Email,age,exerciseType\n");
+        for (int i = 0; i < 7; i++) {
+            csv.append("member").append(i).append(",pw").append(i).append(",닉").append(i)
+                    .append(",m").append(i).append("@gym.com,").append(20 + i).append(",헬스| 수영 |헬스\n");
+        }
+
+        UserImportResultDTO result = service(3).importCsv(new StringReader(csv.toString()));
+
+        assertEquals(7, result.getRead());
+        assertEquals(7, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(List.of("member0", "member1", "member2", "member3", "member4", "member5", "member6"), insertedUserIds);
+        assertEquals("hashed:pw4", insertedPasswords.get(4));
+        //종목은 중복 없이 회원마다 2개
+        assertEquals(14, insertedTypes.size());
+        assertArrayEquals(new Object[]{7L, "수영"}, insertedTypes.get(13));
+        assertEquals(List.of("헬스", "수영"), exerciseTypeIndex.typesOf(7));
+
+        //등록된 값은 필터에 들어가서 DB 확인으로 넘어감
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any())).thenReturn(true);
+        assertFalse(availability.isAvailable(UserAvailabilityService.Field.USER_ID, "MEMBER3", null));
+    }
+
+    @Test
+    @DisplayName("형식 오류 / 파일 안의 중복 / 이미 가입된 값은 건너뛰고 줄 번호를 남김")
+    void rejectRows() throws Exception {
+        UserEntity existing = new UserEntity();
+        existing.setUserId("taken");
+        availability.register(existing);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any())).thenReturn(true);
+
+        String csv = "userId,password,email,age\n" +
+                "kim,pw,kim@gym.com,30\n" +
+                "lee,,lee@gym.com,31\n" +
+                "KIM,pw,other@gym.com,32\n" +
+                "park,pw,KIM@gym.com,33\n" +
+                "choi,pw,choi@gym.com,서른\n" +
+                "taken,pw,taken@gym.com,34\n" +
+                "\n" +
+                "jung,pw,jung@gym.com,\n";
+
+        UserImportResultDTO result = service(500).importCsv(new StringReader(csv));
+
+        assertEquals(7, result.getRead());
+        assertEquals(2, result.getImported());
+        assertEquals(5, result.getRejected());
+        assertEquals(List.of("kim", "jung"), insertedUserIds);
+        assertEquals(List.of(
+                "3 : 비밀번호가 비어 있습니다.",
+                "4 : 파일 안에서 중복된 아이디입니다.",
+                "5 : 파일 안에서 중복된 이메일입니다.",
+                "6 : age 값이 숫자가 아닙니다 : 서른",
+                "7 : 이미 사용 중인 아이디입니다."), result.getErrors());
+        //처리량은 등록된 행만으로 계산
+        assertEquals(20.0, new UserImportResultDTO(7, 2, 5, List.of(), 100).getRowsPerSecond());
+    }
+
+    @Test
+    @DisplayName("필터가 모르는 중복은 DB 유니크 제약에 걸리고, 그 덩어리만 한 행씩 다시 넣어서 걸린 행만 건너뜀")
+    void rejectConstraintViolation() throws Exception {
+        //다른 서버에서 방금 가입해서 이 서버의 필터에는 없는 아이디
+        conflicting.add("lee");
+
+        String csv = "userId,password,email,exerciseType\n" +
+                "kim,pw,kim@gym.com,헬스\n" +
+                "lee,pw,lee@gym.com,수영\n" +
+                "park,pw,park@gym.com,요가\n" +
+                "choi,pw,choi@gym.com,헬스\n";
+
+        UserImportResultDTO result = service(3).importCsv(new StringReader(csv));
+
+        assertEquals(4, result.getRead());
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of("kim", "park", "choi"), insertedUserIds);
+        assertEquals(List.of("3 : 이미 사용 중인 아이디입니다."), result.getErrors());
+        assertEquals(3, insertedTypes.size());
+
+        //저장된 행만 필터에 들어감
+        assertTrue(availability.isAvailable(UserAvailabilityService.Field.USER_ID, "lee", null));
+    }
+}
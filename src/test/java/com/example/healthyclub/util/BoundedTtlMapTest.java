@@ -0,0 +1,81 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlMapTest {
+
+    @Test
+    @DisplayName("만료 시각이 지난 값은 꺼내지지 않고 지워짐")
+    void expired() {
+        List<String> evicted = new ArrayList<>();
+        BoundedTtlMap<Long, String> map = new BoundedTtlMap<>(10, (key, value) -> evicted.add(value));
+        long now = System.currentTimeMillis();
+
+        map.put(1L, "old", now - 1);
+        map.put(2L, "new", now + 60_000);
+        map.put(3L, "forever");
+
+        assertNull(map.get(1L));
+        assertEquals("new", map.get(2L));
+        assertEquals("forever", map.get(3L));
+        assertEquals(2, map.size());
+        assertEquals(List.of("old"), evicted);
+        assertEquals(1, map.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("용량이 차면 만료된 것부터, 그다음 10% 정도를 지움")
+    void bounded() {
+        List<Long> evicted = new ArrayList<>();
+        BoundedTtlMap<Long, String> map = new BoundedTtlMap<>(100, (key, value) -> evicted.add(key));
+        long now = System.currentTimeMillis();
+
+        for (long i = 0; i < 100; i++) {
+            map.put(i, "v" + i, i < 5 ? now - 1 : now + 60_000);
+        }
+        map.put(100L, "v100");
+
+        //만료된 5개를 지우고, 남은 95개가 90개(최대의 90%)가 되도록 5개를 더 지운 뒤 하나 추가
+        assertEquals(91, map.size());
+        assertEquals(10, evicted.size());
+        assertTrue(evicted.containsAll(List.of(0L, 1L, 2L, 3L, 4L)));
+        assertEquals("v100", map.get(100L));
+
+        for (long i = 0; i < 1000; i++) {
+            map.put(1000 + i, "x");
+        }
+        assertTrue(map.size() <= 100);
+    }
+
+    @Test
+    @DisplayName("putIfAbsent / 값이 같을 때만 remove, remove는 eviction으로 세지 않음")
+    void putIfAbsentAndRemove() {
+        BoundedTtlMap<Long, String> map = new BoundedTtlMap<>(10);
+        long now = System.currentTimeMillis();
+
+        assertNull(map.putIfAbsent(1L, "a"));
+        assertEquals("a", map.putIfAbsent(1L, "b"));
+        map.put(2L, "expired", now - 1);
+        assertNull(map.putIfAbsent(2L, "c"));
+        assertEquals("c", map.get(2L));
+
+        assertFalse(map.remove(1L, "b"));
+        assertTrue(map.remove(1L, "a"));
+        assertFalse(map.containsKey(1L));
+        assertEquals("c", map.remove(2L));
+        assertEquals(0, map.size());
+        assertEquals(0, map.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("최대 크기는 1 이상")
+    void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTtlMap<>(0));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    @DisplayName("따옴표 안의 쉼표 / 줄바꿈 / \"\" 와 CRLF, BOM 처리")
+    void quoted() throws IOException {
+        String csv = "\uFEFFuserId,name,memo\r\n" +
+                "kim,\"김, 철수\",\"첫 줄\n둘째 줄\"\r\n" +
+                "lee,,\"\"\"따옴표\"\"\"\n" +
+                "park,박";
+        CsvReader reader = new CsvReader(new StringReader(csv));
+
+        assertEquals(List.of("userId", "name", "memo"), reader.readRecord());
+        assertEquals(1, reader.getLineNumber());
+        assertEquals(List.of("kim", "김, 철수", "첫 줄\n둘째 줄"), reader.readRecord());
+        assertEquals(2, reader.getLineNumber());
+        assertEquals(List.of("lee", "", "\"따옴표\""), reader.readRecord());
+        assertEquals(4, reader.getLineNumber());
+        assertEquals(List.of("park", "박"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    @DisplayName("빈 줄은 빈 칸 하나, 끝의 줄바꿈은 행을 만들지 않음")
+    void blankLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n\nc,d\n"));
+
+        assertEquals(List.of("a", "b"), reader.readRecord());
+        assertEquals(List.of(""), reader.readRecord());
+        assertEquals(List.of("c", "d"), reader.readRecord());
+        assertNull(reader.readRecord());
+        assertNull(new CsvReader(new StringReader("")).readRecord());
+    }
+
+    @Test
+    @DisplayName("닫히지 않은 따옴표는 예외")
+    void unterminated() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n\"c,d\n"));
+        reader.readRecord();
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
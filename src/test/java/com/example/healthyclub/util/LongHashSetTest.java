@@ -0,0 +1,53 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    @DisplayName("추가 / 중복 / 삭제")
+    void basic(){
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(3));
+        assertFalse(set.add(3));
+        assertTrue(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(2, set.size());
+
+        assertTrue(set.remove(3));
+        assertFalse(set.remove(3));
+        assertFalse(set.contains(3));
+        assertArrayEquals(new long[]{0}, set.toSortedArray());
+    }
+
+    @Test
+    @DisplayName("무작위로 추가 / 삭제해도 HashSet과 결과가 같은가")
+    void matchesHashSet(){
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = 0; value < 2_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        assertEquals(expected.size(), set.toSortedArray().length);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentIdBufferTest {
+
+    @Test
+    @DisplayName("가득 차면 가장 오래된 id가 빠지고, 순서가 뒤섞여 들어와도 최신 순으로 나오는가")
+    void keepsNewest(){
+        RecentIdBuffer buffer = new RecentIdBuffer(3);
+        buffer.add(5);
+        buffer.add(2);
+        buffer.add(9);
+        buffer.add(7);
+        buffer.add(7);
+        buffer.add(1);
+
+        assertEquals(3, buffer.size());
+        assertArrayEquals(new long[]{9, 7, 5}, buffer.before(Long.MAX_VALUE, 10));
+    }
+
+    @Test
+    @DisplayName("커서 이전부터 limit개만 잘라내는가")
+    void before(){
+        RecentIdBuffer buffer = new RecentIdBuffer(10);
+        buffer.addAll(new long[]{1, 2, 3, 4, 5, 6});
+        buffer.remove(4);
+
+        assertArrayEquals(new long[]{6, 5}, buffer.before(Long.MAX_VALUE, 2));
+        assertArrayEquals(new long[]{3, 2}, buffer.before(5, 2));
+        assertArrayEquals(new long[]{3, 2, 1}, buffer.before(4, 5));
+        assertEquals(0, buffer.before(1, 5).length);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineParserTest {
+
+    @Test
+    @DisplayName("여러 형식의 운동 기록을 읽을 수 있는가")
+    void parse(){
+        List<RoutineParser.Exercise> exercises = RoutineParser.parse("스쿼트 100kg 5x5\n벤치 프레스 3세트 10회 60kg, 플랭크");
+
+        assertEquals(3, exercises.size());
+
+        RoutineParser.Exercise squat = exercises.get(0);
+        assertEquals("스쿼트", squat.getName());
+        assertEquals(5, squat.getSets());
+        assertEquals(25, squat.getReps());
+        assertEquals(2500, squat.getVolume(), 1e-9);
+
+        RoutineParser.Exercise bench = exercises.get(1);
+        assertEquals("벤치프레스", bench.getName());
+        assertEquals(3, bench.getSets());
+        assertEquals(30, bench.getReps());
+        assertEquals(1800, bench.getVolume(), 1e-9);
+
+        RoutineParser.Exercise plank = exercises.get(2);
+        assertEquals("플랭크", plank.getName());
+        assertEquals(0, plank.getSets());
+    }
+
+    @Test
+    @DisplayName("같은 운동은 합치고, 횟수만 적으면 1세트로 보는가")
+    void mergeAndDefaults(){
+        List<RoutineParser.Exercise> exercises = RoutineParser.parse("Deadlift 3 sets 5 reps 220lb; deadlift 10회");
+
+        assertEquals(1, exercises.size());
+        RoutineParser.Exercise deadlift = exercises.get(0);
+        assertEquals("deadlift", deadlift.getName());
+        assertEquals(4, deadlift.getSets());
+        assertEquals(25, deadlift.getReps());
+        assertEquals(15 * 220 * 0.45359237, deadlift.getVolume(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("빈 본문, 숫자만 있는 조각은 무시하는가")
+    void ignoreEmpty(){
+        assertTrue(RoutineParser.parse(null).isEmpty());
+        assertTrue(RoutineParser.parse("  ").isEmpty());
+        assertTrue(RoutineParser.parse("100kg 5x5").isEmpty());
+        assertEquals("스쿼트", RoutineParser.normalizeName(" 스쿼트! "));
+    }
+}
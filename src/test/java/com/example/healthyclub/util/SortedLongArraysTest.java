@@ -0,0 +1,56 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedLongArraysTest {
+
+    @Test
+    @DisplayName("merge / galloping 모두 TreeSet 교집합과 같은가")
+    void matchesTreeSet(){
+        Random random = new Random(42);
+        //크기가 비슷한 경우(merge)와 한쪽이 훨씬 작은 경우(galloping)
+        int[][] sizes = {{500, 700}, {5, 5_000}, {0, 100}, {3_000, 10}};
+
+        for (int[] size : sizes) {
+            long[] a = randomSorted(random, size[0]);
+            long[] b = randomSorted(random, size[1]);
+
+            TreeSet<Long> expected = new TreeSet<>();
+            for (long value : a) expected.add(value);
+            expected.retainAll(LongStream.of(b).boxed().collect(Collectors.toSet()));
+            long[] expectedArray = expected.stream().mapToLong(Long::longValue).toArray();
+
+            assertArrayEquals(expectedArray, SortedLongArrays.intersect(a, b));
+            assertArrayEquals(expectedArray, SortedLongArrays.intersect(b, a));
+            assertEquals(expectedArray.length, SortedLongArrays.intersectionSize(a, b));
+        }
+    }
+
+    @Test
+    @DisplayName("galloping 탐색 위치")
+    void seek(){
+        long[] sorted = {1, 3, 5, 7, 9, 11};
+
+        assertEquals(0, SortedLongArrays.seek(sorted, 0, 0));
+        assertEquals(2, SortedLongArrays.seek(sorted, 5, 0));
+        assertEquals(3, SortedLongArrays.seek(sorted, 6, 1));
+        assertEquals(6, SortedLongArrays.seek(sorted, 12, 2));
+        assertEquals(6, SortedLongArrays.seek(sorted, 1, 6));
+    }
+
+    private static long[] randomSorted(Random random, int size) {
+        TreeSet<Long> values = new TreeSet<>();
+        while (values.size() < size) {
+            values.add((long) random.nextInt(20_000));
+        }
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTokenBucketLimiterTest {
+
+    @Test
+    @DisplayName("버킷 크기만큼 허용하고 그 다음은 거절하는가")
+    void capacity(){
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(3, 1, 1000);
+        long now = 0;
+
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("a", now) > 0);
+        //다른 키는 영향 없음
+        assertEquals(0, limiter.tryAcquire("b", now));
+    }
+
+    @Test
+    @DisplayName("시간이 지나면 다시 충전되는가")
+    void refill(){
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(1, 1, 1000);
+
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        long wait = limiter.tryAcquire("a", 0);
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("a", TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    @DisplayName("키가 계속 들어와도 메모리가 일정한가")
+    void bounded(){
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(5, 1, 1000);
+
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("key" + i, 0);
+        }
+
+        assertTrue(limiter.size() <= 1000);
+    }
+}
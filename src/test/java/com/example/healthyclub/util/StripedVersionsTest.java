@@ -0,0 +1,36 @@
+package com.example.healthyclub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedVersionsTest {
+
+    @Test
+    @DisplayName("바뀐 키의 버전만 올라가는가")
+    void bump(){
+        StripedVersions versions = new StripedVersions(1 << 16, 0);
+        long before1 = versions.version(1L);
+        long before2 = versions.version(2L);
+
+        versions.bump(1L, 5_000);
+
+        assertNotEquals(before1, versions.version(1L));
+        assertEquals(before2, versions.version(2L));
+        assertEquals(5_000, versions.lastModified(1L));
+    }
+
+    @Test
+    @DisplayName("같은 초 안에 두 번 바뀌어도 마지막 변경 시각이 초 단위로 달라지는가")
+    void lastModifiedMovesBySecond(){
+        StripedVersions versions = new StripedVersions(16, 0);
+
+        versions.bump(7L, 10_100);
+        long first = versions.lastModified(7L) / 1000;
+        versions.bump(7L, 10_300);
+        long second = versions.lastModified(7L) / 1000;
+
+        assertTrue(second > first);
+    }
+}